@@ -0,0 +1,122 @@
+package com.querydsl.benchmark;
+
+import com.querydsl.QuerydslApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 벤치마크용 H2 in-memory DB 로 애플리케이션 컨텍스트를 띄우고 member / team 데이터를 채운다.
+ * team 이름은 team0 ~ team{N-1}, member 나이는 0 ~ 99 사이로 고르게 분포한다.
+ * -Dbenchmark.mysql.url=jdbc:mysql://localhost:3306/bench 를 주면 H2 대신 로컬 MySQL 을 사용한다. (테이블을 다시 만든다)
+ * 같은 인자로 반복 호출하는 벤치마크가 쿼리 대신 캐시를 재지 않도록 검색 결과 캐시, 응답 캐시(MemberResponseCache), 2차 캐시는 끈다.
+ */
+public final class BenchmarkDatabase {
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final int ALLOCATION_SIZE = 50;
+
+    private BenchmarkDatabase() {
+    }
+
+    public static ConfigurableApplicationContext start(String... extraArgs) {
+        return start(WebApplicationType.NONE, extraArgs);
+    }
+
+    /**
+     * 내장 Tomcat 을 임의의 포트로 띄운다. 포트는 port(context) 로 얻는다.
+     */
+    public static ConfigurableApplicationContext startWeb(String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(extraArgs));
+        args.add("--server.port=0");
+        return start(WebApplicationType.SERVLET, args.toArray(new String[0]));
+    }
+
+    public static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... extraArgs) {
+        List<String> args = new ArrayList<>(datasourceArgs());
+        args.addAll(List.of(
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.sql.init.mode=never",
+                "--spring.cache.type=none",
+                "--member.response-cache.enabled=false",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "--logging.level.root=WARN"
+        ));
+        args.addAll(List.of(extraArgs));
+
+        return new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(webApplicationType)
+                .run(args.toArray(new String[0]));
+    }
+
+    private static List<String> datasourceArgs() {
+        String mysqlUrl = System.getProperty("benchmark.mysql.url");
+        if (mysqlUrl != null) {
+            return List.of(
+                    "--spring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver",
+                    "--spring.datasource.url=" + mysqlUrl,
+                    "--spring.datasource.username=" + System.getProperty("benchmark.mysql.username", "root"),
+                    "--spring.datasource.password=" + System.getProperty("benchmark.mysql.password", "root"),
+                    "--spring.jpa.database-platform=org.hibernate.dialect.MySQL57Dialect"
+            );
+        }
+        return List.of(
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.url=jdbc:h2:mem:bench" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+        );
+    }
+
+    public static void seed(ConfigurableApplicationContext context, int memberCount, int teamCount) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        List<Object[]> teams = new ArrayList<>(teamCount);
+        for (int i = 0; i < teamCount; i++) {
+            teams.add(new Object[]{(long) i + 1, "team" + i});
+        }
+        jdbcTemplate.batchUpdate("insert into team (team_id, name) values (?, ?)", teams);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Object[]> members = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < memberCount; i++) {
+            members.add(new Object[]{(long) i + 1, "member" + i, random.nextInt(100), (long) (i % teamCount) + 1});
+            if (members.size() == BATCH_SIZE) {
+                insertMembers(jdbcTemplate, members);
+                members.clear();
+            }
+        }
+        insertMembers(jdbcTemplate, members);
+
+        // id 를 직접 넣었으므로 sequence 를 그 뒤로 옮긴다. (벤치마크 중 persist 하는 id 와 겹치지 않도록)
+        advanceSequence(jdbcTemplate, "team_seq", teamCount);
+        advanceSequence(jdbcTemplate, "member_seq", memberCount);
+    }
+
+    // pooled optimizer(allocationSize = 50) 는 읽은 값을 hi 로 보고 (값 - 49) 부터 할당한다.
+    private static void advanceSequence(JdbcTemplate jdbcTemplate, String sequence, long maxId) {
+        long nextValue = maxId + ALLOCATION_SIZE;
+        if (System.getProperty("benchmark.mysql.url") != null) {
+            jdbcTemplate.update("update " + sequence + " set next_val = ?", nextValue);
+        } else {
+            jdbcTemplate.execute("alter sequence " + sequence + " restart with " + nextValue);
+        }
+    }
+
+    private static void insertMembers(JdbcTemplate jdbcTemplate, List<Object[]> members) {
+        if (!members.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)", members);
+        }
+    }
+}
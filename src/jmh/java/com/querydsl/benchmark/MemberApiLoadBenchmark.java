@@ -0,0 +1,82 @@
+package com.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /v2/members 에 동시에 요청을 보내 처리량을 잰다. 기본 설정(Hikari 기본값)과 prod 프로필(풀 크기, statement cache)을 비교한다.
+ * 검색 결과 캐시와 응답 캐시(ETag)는 끄고 매 요청마다 쿼리와 직렬화를 실행한다. (BenchmarkDatabase)
+ * Connector/J statement cache / batch rewrite 효과는 MySQL 에서만 보인다.
+ * ./gradlew jmh -Pjmh.includes=MemberApiLoadBenchmark -Pjmh.args="-jvmArgsAppend -Dbenchmark.mysql.url=jdbc:mysql://localhost:3306/bench"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(32)
+@State(Scope.Benchmark)
+public class MemberApiLoadBenchmark {
+
+    @Param({"100000"})
+    int memberCount;
+
+    @Param({"10"})
+    int teamCount;
+
+    @Param({"default", "prod"})
+    String profile;
+
+    ConfigurableApplicationContext context;
+    HttpClient httpClient;
+    String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.startWeb("--spring.profiles.active=" + profile);
+        BenchmarkDatabase.seed(context, memberCount, teamCount);
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = "http://localhost:" + BenchmarkDatabase.port(context) + "/v2/members";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int searchMembers() throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int ageGoe = random.nextInt(80);
+        URI uri = URI.create(baseUrl + "?teamName=team" + random.nextInt(teamCount)
+                + "&ageGoe=" + ageGoe + "&ageLoe=" + (ageGoe + 10) + "&page=" + random.nextInt(10) + "&size=20");
+        HttpResponse<byte[]> response = httpClient.send(HttpRequest.newBuilder(uri).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("unexpected status " + response.statusCode() + " for " + uri);
+        }
+        return response.body().length;
+    }
+}
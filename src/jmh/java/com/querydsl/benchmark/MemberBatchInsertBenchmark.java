@@ -0,0 +1,89 @@
+package com.querydsl.benchmark;
+
+import com.querydsl.entity.Member;
+import com.querydsl.entity.Team;
+import com.querydsl.repository.MemberRepository;
+import com.querydsl.repository.TeamRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * member 저장 경로별 rows/sec 비교. 한 번의 호출이 ROWS 건을 저장하므로 결과는 초당 저장 건수이다.
+ * save 는 data.createMember 처럼 건마다 repository.save 를 호출하는 기존 방식이다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemberBatchInsertBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    @Param({"50", "500"})
+    int batchSize;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    JdbcTemplate jdbcTemplate;
+    Team team;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        team = context.getBean(TeamRepository.class).save(new Team("batch"));
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearMembers() {
+        jdbcTemplate.update("delete from member");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void save() {
+        for (Member member : newMembers()) {
+            memberRepository.save(member);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int saveAllBatched() {
+        return memberRepository.saveAllBatched(newMembers(), batchSize);
+    }
+
+    private List<Member> newMembers() {
+        List<Member> members = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            members.add(new Member("member" + i, i % 100, team));
+        }
+        return members;
+    }
+}
@@ -0,0 +1,87 @@
+package com.querydsl.benchmark;
+
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.entity.Member;
+import com.querydsl.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Table(indexes) 선언 전/후 비교. indexed=false 이면 시딩 후 선언된 인덱스를 모두 지운다.
+ * 검색 결과 캐시와 2차 캐시는 끄고 DB 접근만 측정한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class MemberIndexBenchmark {
+
+    private static final String[] INDEXES = {"idx_member_username", "idx_member_team_age", "idx_member_age", "idx_team_name"};
+
+    @Param({"1000000"})
+    int memberCount;
+
+    @Param({"1000"})
+    int teamCount;
+
+    @Param({"true", "false"})
+    boolean indexed;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    int sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start();
+        BenchmarkDatabase.seed(context, memberCount, teamCount);
+        if (!indexed) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            for (String index : INDEXES) {
+                jdbcTemplate.execute("drop index " + index);
+            }
+        }
+
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // H2 는 같은 파라미터의 직전 결과를 재사용하므로 호출마다 조건 값을 바꾼다.
+    @Benchmark
+    public List<MemberTeamDto> searchByTeamAndAge() {
+        int n = sequence++;
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("team" + (n % teamCount));
+        condition.setAgeGoe(n % 90);
+        condition.setAgeLoe(n % 90 + 9);
+        return memberRepository.search(condition);
+    }
+
+    @Benchmark
+    public Member findByUsername() {
+        return memberRepository.findByUsername("member" + (sequence++ * 7919 % memberCount));
+    }
+}
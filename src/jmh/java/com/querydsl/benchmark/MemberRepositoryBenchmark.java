@@ -0,0 +1,117 @@
+package com.querydsl.benchmark;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.entity.Member;
+import com.querydsl.entity.QMember;
+import com.querydsl.repository.MemberJpaRepository;
+import com.querydsl.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemberRepository 조회 경로 벤치마크.
+ * Throughput 과 SampleTime(p50/p90/p99 등) 을 함께 측정하고, gradle jmh 태스크가 gc profiler 를 붙여 할당량을 보고한다.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class MemberRepositoryBenchmark {
+
+    // H2 메모리 DB 와 -Xmx2g 로는 1000만 건을 올릴 수 없다. 더 큰 규모는 -Dbenchmark.mysql.url 로 MySQL 에서 잰다.
+    @Param({"10000", "100000", "1000000"})
+    int memberCount;
+
+    @Param({"10"})
+    int teamCount;
+
+    @Param({"0", "100"})
+    int page;
+
+    @Param({"20"})
+    int pageSize;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberJpaRepository memberJpaRepository;
+
+    MemberSearchCondition condition;
+    PageRequest pageRequest;
+    Predicate predicate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start();
+        BenchmarkDatabase.seed(context, memberCount, teamCount);
+
+        memberRepository = context.getBean(MemberRepository.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+
+        // 한 팀의 특정 나이대만 조회해서 결과 건수를 전체의 1% 정도로 유지한다.
+        condition = new MemberSearchCondition();
+        condition.setTeamName("team1");
+        condition.setAgeGoe(20);
+        condition.setAgeLoe(29);
+
+        pageRequest = PageRequest.of(page, pageSize);
+
+        QMember member = QMember.member;
+        predicate = member.team.name.eq("team1").and(member.age.between(20, 29));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> search() {
+        return memberRepository.search(condition);
+    }
+
+    @Benchmark
+    public List<Member> findMember() {
+        return memberRepository.findMember(condition);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageSimple() {
+        return memberRepository.searchPageSimple(condition, pageRequest);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageComplex() {
+        return memberRepository.searchPageComplex(condition, pageRequest);
+    }
+
+    @Benchmark
+    public List<Member> searchByBuilder() {
+        return memberJpaRepository.searchByBuilder(condition);
+    }
+
+    @Benchmark
+    public Iterable<Member> findAllByPredicate() {
+        return memberRepository.findAll(predicate);
+    }
+}
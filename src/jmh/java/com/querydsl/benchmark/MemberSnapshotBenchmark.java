@@ -0,0 +1,102 @@
+package com.querydsl.benchmark;
+
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.repository.MemberRepository;
+import com.querydsl.repository.snapshot.MemberSnapshotEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * teamName + 나이 범위 검색. 한 페이지(count 포함)와 count 만 따로, 메모리 snapshot(roaring bitmap 인덱스) / DB 로 비교한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class MemberSnapshotBenchmark {
+
+    @Param({"1000000"})
+    int memberCount;
+
+    @Param({"10"})
+    int teamCount;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberSnapshotEngine snapshotEngine;
+    TransactionTemplate writeTransaction;
+    PageRequest pageRequest = PageRequest.of(1, 20);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start("--member.snapshot.enabled=true");
+        BenchmarkDatabase.seed(context, memberCount, teamCount);
+
+        memberRepository = context.getBean(MemberRepository.class);
+        snapshotEngine = context.getBean(MemberSnapshotEngine.class);
+        writeTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        // seed 는 JDBC 로 넣으므로 snapshot 을 다시 읽는다.
+        snapshotEngine.reload();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private MemberSearchCondition condition() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("team" + random.nextInt(teamCount));
+        condition.setAgeGoe(random.nextInt(80));
+        condition.setAgeLoe(condition.getAgeGoe() + 10);
+        return condition;
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> snapshot() {
+        return snapshotEngine.searchPage(condition(), pageRequest);
+    }
+
+    // searchPageComplex 는 검색 결과 캐시를 거치므로 content / count 쿼리를 직접 실행한다.
+    @Benchmark
+    public Page<MemberTeamDto> database() {
+        MemberSearchCondition condition = condition();
+        return writeTransaction.execute(status -> new PageImpl<>(memberRepository.searchContent(condition, pageRequest),
+                pageRequest, memberRepository.searchCount(condition)));
+    }
+
+    @Benchmark
+    public long snapshotCount() {
+        return snapshotEngine.count(condition());
+    }
+
+    // 쓰기 트랜잭션 안에서는 searchCount 가 snapshot 대신 count 쿼리를 실행한다.
+    @Benchmark
+    public Long databaseCount() {
+        return writeTransaction.execute(status -> memberRepository.searchCount(condition()));
+    }
+}
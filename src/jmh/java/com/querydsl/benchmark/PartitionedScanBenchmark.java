@@ -0,0 +1,91 @@
+package com.querydsl.benchmark;
+
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.repository.MemberRepository;
+import com.querydsl.service.MemberScanService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 전체 member 를 한 번 읽는 시간. OFFSET 페이지 반복 / 한 커넥션 scan / partition scan(parallelism 별)을 비교한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class PartitionedScanBenchmark {
+
+    @Param({"200000"})
+    int memberCount;
+
+    @Param({"1", "2", "4"})
+    int parallelism;
+
+    @Param({"true", "false"})
+    boolean ordered;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberScanService memberScanService;
+    TransactionTemplate readOnlyTransaction;
+    MemberSearchCondition condition = new MemberSearchCondition();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start("--member.scan.pool-size=" + parallelism);
+        BenchmarkDatabase.seed(context, memberCount, 10);
+
+        memberRepository = context.getBean(MemberRepository.class);
+        memberScanService = context.getBean(MemberScanService.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long partitionedScan(Blackhole blackhole) {
+        return memberScanService.scan(condition, parallelism, ordered, blackhole::consume);
+    }
+
+    // 기존 방식: searchContent 로 OFFSET 을 늘려 가며 읽는다. (parallelism / ordered 와 상관없음)
+    @Benchmark
+    public long offsetPaging(Blackhole blackhole) {
+        long count = 0;
+        for (int page = 0; ; page++) {
+            PageRequest pageRequest = PageRequest.of(page, 1000);
+            List<MemberTeamDto> content = readOnlyTransaction.execute(status ->
+                    memberRepository.searchContent(condition, pageRequest));
+            content.forEach(blackhole::consume);
+            count += content.size();
+            if (content.size() < pageRequest.getPageSize()) {
+                return count;
+            }
+        }
+    }
+}
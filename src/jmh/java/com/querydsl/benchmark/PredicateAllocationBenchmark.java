@@ -0,0 +1,97 @@
+package com.querydsl.benchmark;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.QMemberTeamDto;
+import com.querydsl.entity.QMember;
+import com.querydsl.entity.QTeam;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.repository.MemberPredicates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 검색 쿼리 하나를 조립할 때 생기는 garbage 비교 (DB 없이 쿼리 메타데이터까지만 만든다).
+ * -prof gc 의 gc.alloc.rate.norm (B/op) 을 본다.
+ * perCall 은 기존 방식 (호출마다 QMemberTeamDto, BooleanBuilder 생성), shared 는 MemberPredicates.JPA 와 상수 projection 을 사용한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PredicateAllocationBenchmark {
+
+    private static final QMember member = QMember.member;
+    private static final QTeam team = QTeam.team;
+    private static final QMemberTeamDto projection =
+            new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name);
+
+    @Param({"none", "teamName", "all"})
+    String shape;
+
+    MemberSearchCondition condition;
+
+    @Setup
+    public void setUp() {
+        condition = new MemberSearchCondition();
+        if (!"none".equals(shape)) {
+            condition.setTeamName("teamA");
+        }
+        if ("all".equals(shape)) {
+            condition.setUsername("member1");
+            condition.setAgeGoe(10);
+            condition.setAgeLoe(40);
+        }
+    }
+
+    @Benchmark
+    public JPQLQuery<?> perCall() {
+        QMember member = QMember.member;
+        QTeam team = QTeam.team;
+
+        BooleanBuilder builder = new BooleanBuilder();
+        if (hasText(condition.getUsername())) {
+            builder.and(member.username.eq(condition.getUsername()));
+        }
+        if (hasText(condition.getTeamName())) {
+            builder.and(team.name.eq(condition.getTeamName()));
+        }
+        if (condition.getAgeGoe() != null) {
+            builder.and(member.age.goe(condition.getAgeGoe()));
+        }
+        if (condition.getAgeLoe() != null) {
+            builder.and(member.age.loe(condition.getAgeLoe()));
+        }
+
+        return new JPAQuery<Void>()
+                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(builder);
+    }
+
+    @Benchmark
+    public JPQLQuery<?> shared() {
+        return new JPAQuery<Void>()
+                .select(projection)
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(MemberPredicates.JPA.toPredicate(condition));
+    }
+}
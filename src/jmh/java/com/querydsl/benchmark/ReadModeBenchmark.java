@@ -0,0 +1,69 @@
+package com.querydsl.benchmark;
+
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.repository.MemberReadMode;
+import com.querydsl.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findMemberTeams 의 read mode 별로 전체 member 를 읽어서 DTO 목록을 만드는 비용 비교.
+ * 한 번의 op 가 memberCount 건을 읽으므로 -prof gc 의 gc.alloc.rate.norm (B/op) 이 곧 100k 건당 힙 할당량이다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ReadModeBenchmark {
+
+    @Param({"100000"})
+    int memberCount;
+
+    @Param({"10"})
+    int teamCount;
+
+    @Param({"ENTITY", "READ_ONLY", "PROJECTION", "STATELESS"})
+    MemberReadMode readMode;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberSearchCondition condition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 결과 캐시와 상관없이 매번 DB 를 읽는다.
+        context = BenchmarkDatabase.start("--logging.level.com.querydsl.slowquery=OFF");
+        BenchmarkDatabase.seed(context, memberCount, teamCount);
+
+        memberRepository = context.getBean(MemberRepository.class);
+        condition = new MemberSearchCondition();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> findMemberTeams() {
+        return memberRepository.findMemberTeams(condition, readMode);
+    }
+}
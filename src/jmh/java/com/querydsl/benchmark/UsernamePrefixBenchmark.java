@@ -0,0 +1,86 @@
+package com.querydsl.benchmark;
+
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.repository.MemberRepository;
+import com.querydsl.repository.UsernameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * username prefix 검색 비교. 메모리 인덱스(UsernameIndex) / 인덱스 + PK 조회 / DB like 'x%' (idx_member_username range scan).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class UsernamePrefixBenchmark {
+
+    @Param({"1000000"})
+    int memberCount;
+
+    @Param({"20"})
+    int limit;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    UsernameIndex usernameIndex;
+    PageRequest pageRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start("--member.username-index.enabled=true");
+        BenchmarkDatabase.seed(context, memberCount, 10);
+
+        memberRepository = context.getBean(MemberRepository.class);
+        usernameIndex = context.getBean(UsernameIndex.class);
+        // seed 는 JDBC 로 넣으므로 인덱스를 다시 읽는다.
+        usernameIndex.reload();
+        pageRequest = PageRequest.of(0, limit);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private String prefix() {
+        return "member" + ThreadLocalRandom.current().nextInt(memberCount / 10);
+    }
+
+    @Benchmark
+    public List<String> indexUsernames() {
+        return usernameIndex.findUsernamesByPrefix(prefix(), limit);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> indexThenPrimaryKey() {
+        return memberRepository.searchByUsernamePrefix(prefix(), limit);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> databaseLike() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsernamePrefix(prefix());
+        return memberRepository.searchContent(condition, pageRequest);
+    }
+}
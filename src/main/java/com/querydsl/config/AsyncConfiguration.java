@@ -0,0 +1,46 @@
+package com.querydsl.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfiguration {
+
+    public static final String MEMBER_QUERY_EXECUTOR = "memberQueryExecutor";
+    public static final String MEMBER_SCAN_EXECUTOR = "memberScanExecutor";
+
+    /**
+     * content / count 쿼리를 동시에 실행하는 executor. 작업마다 커넥션을 하나씩 잡으므로
+     * pool-size 는 커넥션 풀 크기보다 작게 둔다. 큐가 가득 차면 호출한 스레드에서 실행한다.
+     */
+    @Bean(name = MEMBER_QUERY_EXECUTOR)
+    public ThreadPoolTaskExecutor memberQueryExecutor(@Value("${member.async.pool-size:4}") int poolSize,
+                                                      @Value("${member.async.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("member-query-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * partition scan worker 용 executor. worker 마다 커넥션을 스캔이 끝날 때까지 잡고 있으므로 pool-size 는 커넥션 풀보다 작게 둔다.
+     * worker 는 호출한 스레드가 결과를 받아 가기를 기다리므로 호출한 스레드에서 실행하면 안 된다. (CallerRunsPolicy 를 쓰지 않는다)
+     */
+    @Bean(name = MEMBER_SCAN_EXECUTOR)
+    public ThreadPoolTaskExecutor memberScanExecutor(@Value("${member.scan.pool-size:4}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("member-scan-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
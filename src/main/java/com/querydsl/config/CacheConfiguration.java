@@ -0,0 +1,47 @@
+package com.querydsl.config;
+
+import com.querydsl.controller.MemberResponseCache;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfiguration {
+
+    public static final String MEMBER_SEARCH = "memberSearch";
+
+    /**
+     * 캐시 put / evict 를 트랜잭션 커밋 이후로 미룬다. 롤백된 쓰기의 결과가 캐시에 남지 않는다.
+     * spring.cache.type=none 이면 등록하지 않고 Spring Boot 의 no-op 캐시를 사용한다.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "caffeine", matchIfMissing = true)
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        String spec = cacheProperties.getCaffeine().getSpec();
+        if (StringUtils.hasText(spec)) {
+            cacheManager.setCacheSpecification(spec);
+        }
+        if (!cacheProperties.getCacheNames().isEmpty()) {
+            cacheManager.setCacheNames(cacheProperties.getCacheNames());
+        }
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    //검색 응답 byte[] 캐시 hit/miss, 크기 (cache.* 메트릭, cache=memberResponse)
+    @Bean
+    public MeterBinder memberResponseCacheMetrics(MemberResponseCache memberResponseCache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, memberResponseCache.getNativeCache(), "memberResponse");
+    }
+}
@@ -0,0 +1,41 @@
+package com.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * R2DBC ConnectionFactory bean 이 있으면 DataSourceAutoConfiguration 이 적용되지 않으므로
+ * JPA 가 사용할 JDBC DataSource 를 spring.datasource.* 로 직접 등록한다.
+ * (datasource.routing.enabled=true 이면 RoutingDataSourceConfiguration 이 대신 등록한다.)
+ */
+@Configuration
+@EnableConfigurationProperties({DataSourceProperties.class, SqlInitializationProperties.class})
+public class DataSourceConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "false", matchIfMissing = true)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (properties.getName() != null) {
+            dataSource.setPoolName(properties.getName());
+        }
+        return dataSource;
+    }
+
+    //spring.sql.init 스크립트는 R2DBC 가 아니라 JPA 와 같은 JDBC DataSource 에 실행한다.
+    @Bean
+    public SqlDataSourceScriptDatabaseInitializer dataSourceScriptDatabaseInitializer(
+            DataSource dataSource, SqlInitializationProperties properties) {
+        return new SqlDataSourceScriptDatabaseInitializer(dataSource, properties);
+    }
+}
@@ -0,0 +1,69 @@
+package com.querydsl.config;
+
+import org.hibernate.QueryException;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.function.SQLFunction;
+import org.hibernate.engine.spi.Mapping;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.type.StandardBasicTypes;
+import org.hibernate.type.Type;
+
+import java.util.List;
+
+/**
+ * fulltext_match(column, term) : term 이 column 에 포함되면 0 보다 큰 값.
+ * MySQL 은 FULLTEXT(ngram) 인덱스를 쓰는 match ... against 구문(phrase 검색)으로, 그 밖의 DB(H2)는 locate 로 바꾼다.
+ * MySQL 이어도 ft_member_username 인덱스가 없으면(SchemaIndexVerifier 가 시작할 때 확인) locate 로 검색한다.
+ * ngram 토큰보다 짧은 term 은 FULLTEXT 로 찾을 수 없고, 큰따옴표는 phrase 안에서 escape 할 수 없으므로
+ * 그런 term 은 호출하는 쪽에서 like 로 처리한다.
+ */
+public class FullTextMatchFunction implements SQLFunction {
+
+    // MySQL ngram_token_size 기본값
+    public static final int MIN_TERM_LENGTH = 2;
+
+    private volatile boolean indexAvailable = true;
+
+    public boolean isIndexAvailable() {
+        return indexAvailable;
+    }
+
+    public void setIndexAvailable(boolean indexAvailable) {
+        this.indexAvailable = indexAvailable;
+    }
+
+    @Override
+    public boolean hasArguments() {
+        return true;
+    }
+
+    @Override
+    public boolean hasParenthesesIfNoArguments() {
+        return true;
+    }
+
+    @Override
+    public Type getReturnType(Type firstArgumentType, Mapping mapping) {
+        return StandardBasicTypes.DOUBLE;
+    }
+
+    // SQLFunction 의 시그니처가 raw List 라서 그대로 override 한다.
+    @Override
+    @SuppressWarnings("rawtypes")
+    public String render(Type firstArgumentType, List arguments, SessionFactoryImplementor factory) {
+        return render(factory.getJdbcServices().getDialect(), arguments);
+    }
+
+    String render(Dialect dialect, List<?> arguments) {
+        if (arguments.size() != 2) {
+            throw new QueryException("fulltext_match requires 2 arguments (column, term)");
+        }
+        Object column = arguments.get(0);
+        Object term = arguments.get(1);
+        if (dialect instanceof MySQLDialect && indexAvailable) {
+            return "match (" + column + ") against (concat('\"', " + term + ", '\"') in boolean mode)";
+        }
+        return "locate(" + term + ", " + column + ")";
+    }
+}
@@ -0,0 +1,77 @@
+package com.querydsl.config;
+
+import com.querydsl.metrics.StatementCountingInspector;
+import com.querydsl.repository.MemberSearchCacheEvictListener;
+import com.querydsl.repository.MemberSearchQueryCache;
+import com.querydsl.repository.TableVersionEventListener;
+import com.querydsl.repository.TableVersions;
+import com.querydsl.repository.TeamStatsEventListener;
+import com.querydsl.repository.UsernameIndex;
+import com.querydsl.repository.UsernameIndexEventListener;
+import com.querydsl.repository.snapshot.MemberSnapshotEngine;
+import com.querydsl.repository.snapshot.MemberSnapshotEventListener;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class HibernateConfiguration {
+
+    //FULLTEXT 인덱스 유무는 SchemaIndexVerifier 가 시작할 때 설정한다
+    @Bean
+    public FullTextMatchFunction fullTextMatchFunction() {
+        return new FullTextMatchFunction();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer querydslFunctionCustomizer(FullTextMatchFunction fullTextMatchFunction) {
+        return properties -> properties.put(EntityManagerFactoryBuilderImpl.METADATA_BUILDER_CONTRIBUTOR,
+                new QuerydslFunctionContributor(fullTextMatchFunction));
+    }
+
+    //repository 호출당 statement 수 집계
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCountingInspector());
+    }
+
+    //member / team 변경을 team_stats 요약 테이블, username 인덱스, member snapshot, 테이블 버전, 검색 결과 캐시에 반영
+    @Bean
+    public HibernatePropertiesCustomizer eventListenerCustomizer(UsernameIndex usernameIndex,
+                                                                 MemberSnapshotEngine snapshotEngine,
+                                                                 TableVersions tableVersions,
+                                                                 ObjectProvider<CacheManager> cacheManager) {
+        return properties -> properties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.of(
+                        new TeamStatsEventListener(),
+                        new UsernameIndexEventListener(usernameIndex),
+                        new MemberSnapshotEventListener(snapshotEngine),
+                        new TableVersionEventListener(tableVersions),
+                        new MemberSearchCacheEvictListener(cacheManager)));
+    }
+
+    //검색 JPQL 캐시 hit/miss
+    @Bean
+    public MeterBinder memberSearchQueryCacheMetrics(MemberSearchQueryCache searchQueryCache) {
+        return registry -> {
+            FunctionCounter.builder("querydsl.search.plan.cache", searchQueryCache, MemberSearchQueryCache::getHitCount)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("querydsl.search.plan.cache", searchQueryCache, MemberSearchQueryCache::getMissCount)
+                    .tag("result", "miss")
+                    .register(registry);
+            Gauge.builder("querydsl.search.plan.cache.size", searchQueryCache, MemberSearchQueryCache::size)
+                    .register(registry);
+        };
+    }
+}
@@ -1,6 +1,8 @@
 package com.querydsl.config;
 
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.metrics.MeteredJPAQueryFactory;
+import com.querydsl.metrics.QueryMetrics;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -14,7 +16,7 @@ public class QuerydslConfiguration {
     private EntityManager entityManager;
 
     @Bean
-    public JPAQueryFactory jpaQueryFactory() {
-        return new JPAQueryFactory(entityManager);
+    public JPAQueryFactory jpaQueryFactory(QueryMetrics queryMetrics) {
+        return new MeteredJPAQueryFactory(entityManager, queryMetrics);
     }
-}
\ No newline at end of file
+}
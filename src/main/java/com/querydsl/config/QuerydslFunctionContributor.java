@@ -0,0 +1,30 @@
+package com.querydsl.config;
+
+import org.hibernate.boot.MetadataBuilder;
+import org.hibernate.boot.spi.MetadataBuilderContributor;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * JPQL 에서 사용할 수 없는 SQL 함수를 Hibernate 에 등록한다.
+ */
+public class QuerydslFunctionContributor implements MetadataBuilderContributor {
+
+    public static final String COUNT_OVER = "count_over";
+    public static final String FULLTEXT_MATCH = "fulltext_match";
+
+    private final FullTextMatchFunction fullTextMatchFunction;
+
+    public QuerydslFunctionContributor(FullTextMatchFunction fullTextMatchFunction) {
+        this.fullTextMatchFunction = fullTextMatchFunction;
+    }
+
+    @Override
+    public void contribute(MetadataBuilder metadataBuilder) {
+        // 페이징 content 와 total 을 한 번에 조회하기 위한 window count. 지원 여부는 WindowFunctionSupport 로 확인한다.
+        metadataBuilder.applySqlFunction(COUNT_OVER,
+                new SQLFunctionTemplate(StandardBasicTypes.LONG, "count(*) over()"));
+        // username 부분 일치 검색. MySQL 은 FULLTEXT 인덱스, 그 밖의 DB 는 locate 로 실행한다.
+        metadataBuilder.applySqlFunction(FULLTEXT_MATCH, fullTextMatchFunction);
+    }
+}
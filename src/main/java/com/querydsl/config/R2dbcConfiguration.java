@@ -0,0 +1,35 @@
+package com.querydsl.config;
+
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.MySQLTemplates;
+import com.querydsl.sql.SQLTemplates;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.TransactionManagementConfigurer;
+
+@Configuration
+public class R2dbcConfiguration {
+
+    //R2DBC 로 실행할 Querydsl SQL 의 dialect 는 연결된 DB 에 맞춘다.
+    @Bean
+    public SQLTemplates querydslSqlTemplates(ConnectionFactory connectionFactory) {
+        String name = connectionFactory.getMetadata().getName();
+        if (name.contains("H2")) {
+            return H2Templates.builder().build();
+        }
+        if (name.contains("MySQL") || name.contains("MariaDB")) {
+            return MySQLTemplates.builder().build();
+        }
+        return SQLTemplates.DEFAULT;
+    }
+
+    //R2DBC 의 ReactiveTransactionManager 가 추가되므로 @Transactional 의 기본 트랜잭션 매니저는 JPA 로 지정한다.
+    @Bean
+    public TransactionManagementConfigurer jpaTransactionManagementConfigurer(
+            ObjectProvider<PlatformTransactionManager> transactionManager) {
+        return transactionManager::getObject;
+    }
+}
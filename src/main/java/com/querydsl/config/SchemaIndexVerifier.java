@@ -0,0 +1,142 @@
+package com.querydsl.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * ddl-auto=validate 는 인덱스를 검사하지 않으므로, 엔티티의 @Table(indexes) 선언과 실제 DB 인덱스를 시작 시점에 비교한다.
+ * MySQL 에서는 JPA 로 선언할 수 없는 FULLTEXT 인덱스(db/member_username_fulltext.sql)도 확인하고,
+ * 없으면 usernameContains 가 locate 로 검색하도록 FullTextMatchFunction 에 알린다. (schema.index-check 와 상관없이 확인한다)
+ * schema.index-check = warn(기본) | fail | off
+ */
+@Slf4j
+@Component
+public class SchemaIndexVerifier implements ApplicationRunner {
+
+    private static final String FULLTEXT_TABLE = "member";
+    private static final String FULLTEXT_INDEX = "ft_member_username";
+    private static final List<String> FULLTEXT_COLUMNS = List.of("username");
+
+    private final EntityManagerFactory emf;
+    private final DataSource dataSource;
+    private final FullTextMatchFunction fullTextMatchFunction;
+    private final String mode;
+
+    public SchemaIndexVerifier(EntityManagerFactory emf, DataSource dataSource,
+                               FullTextMatchFunction fullTextMatchFunction,
+                               @Value("${schema.index-check:warn}") String mode) {
+        this.emf = emf;
+        this.dataSource = dataSource;
+        this.fullTextMatchFunction = fullTextMatchFunction;
+        this.mode = mode;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        List<String> problems = verify();
+        if ("off".equalsIgnoreCase(mode)) {
+            return;
+        }
+        if (problems.isEmpty()) {
+            log.info("declared indexes are present in the database");
+            return;
+        }
+        problems.forEach(problem -> log.warn("index check: {}", problem));
+        if ("fail".equalsIgnoreCase(mode)) {
+            throw new IllegalStateException("declared indexes are missing: " + problems);
+        }
+    }
+
+    public List<String> verify() throws SQLException {
+        List<String> problems = new ArrayList<>();
+        SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (EntityPersister persister : sessionFactory.getMetamodel().entityPersisters().values()) {
+                Class<?> mappedClass = persister.getMappedClass();
+                Table table = mappedClass.getAnnotation(Table.class);
+                if (table == null || table.indexes().length == 0) {
+                    continue;
+                }
+
+                String tableName = ((AbstractEntityPersister) persister).getTableName();
+                Map<String, List<String>> actual = indexesOf(metaData, connection.getCatalog(), tableName);
+                for (Index index : table.indexes()) {
+                    List<String> expectedColumns = columns(index.columnList());
+                    List<String> actualColumns = actual.get(index.name().toLowerCase(Locale.ROOT));
+                    if (actualColumns == null) {
+                        problems.add("missing " + index.name() + " -> create index " + index.name()
+                                + " on " + tableName + " (" + String.join(", ", expectedColumns) + ");");
+                    } else if (!actualColumns.equals(expectedColumns)) {
+                        problems.add(index.name() + " on " + tableName + " has columns " + actualColumns
+                                + " but " + expectedColumns + " is declared");
+                    }
+                }
+            }
+
+            if ("MySQL".equalsIgnoreCase(metaData.getDatabaseProductName())) {
+                List<String> actualColumns = indexesOf(metaData, connection.getCatalog(), FULLTEXT_TABLE)
+                        .get(FULLTEXT_INDEX);
+                boolean available = FULLTEXT_COLUMNS.equals(actualColumns);
+                fullTextMatchFunction.setIndexAvailable(available);
+                if (!available) {
+                    problems.add("missing " + FULLTEXT_INDEX + " -> run db/member_username_fulltext.sql"
+                            + " (until then usernameContains searches without the index)");
+                }
+            }
+        }
+        return problems;
+    }
+
+    private Map<String, List<String>> indexesOf(DatabaseMetaData metaData, String catalog, String tableName) throws SQLException {
+        // 테이블 이름 대소문자 처리가 DB 마다 달라서 (H2 는 대문자, MySQL 은 그대로) 순서대로 찾아본다.
+        for (String candidate : new String[]{tableName, tableName.toUpperCase(Locale.ROOT), tableName.toLowerCase(Locale.ROOT)}) {
+            Map<String, TreeMap<Short, String>> positions = new TreeMap<>();
+            try (ResultSet rs = metaData.getIndexInfo(catalog, null, candidate, false, false)) {
+                while (rs.next()) {
+                    String indexName = rs.getString("INDEX_NAME");
+                    String columnName = rs.getString("COLUMN_NAME");
+                    if (indexName == null || columnName == null) {
+                        continue;
+                    }
+                    positions.computeIfAbsent(indexName.toLowerCase(Locale.ROOT), name -> new TreeMap<>())
+                            .put(rs.getShort("ORDINAL_POSITION"), columnName.toLowerCase(Locale.ROOT));
+                }
+            }
+            if (!positions.isEmpty()) {
+                return positions.entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, e -> new ArrayList<>(e.getValue().values())));
+            }
+        }
+        return Map.of();
+    }
+
+    private static List<String> columns(String columnList) {
+        return Arrays.stream(columnList.split(","))
+                .map(column -> column.trim().split("\\s+")[0].toLowerCase(Locale.ROOT))
+                .collect(Collectors.toList());
+    }
+}
@@ -1,28 +1,103 @@
 package com.querydsl.controller;
 
+import com.querydsl.dto.CursorSlice;
 import com.querydsl.dto.MemberSearchCondition;
 import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.repository.InvalidCursorException;
 import com.querydsl.repository.MemberRepository;
+import com.querydsl.service.MemberExportService;
+import com.querydsl.service.MemberSearchService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
     private final MemberRepository memberRepository;
+    private final MemberExportService memberExportService;
+    private final MemberSearchService memberSearchService;
+    private final MemberResponseCache memberResponseCache;
 
+    // ETag 가 같으면 304, 같은 조건 + Pageable 이면 캐시된 응답을 돌려준다. (MemberResponseCache)
     @GetMapping("/v2/members")
-    public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPageSimple(condition, pageable);
+    public ResponseEntity<byte[]> searchMemberV2(MemberSearchCondition condition, Pageable pageable, WebRequest request) {
+        return memberResponseCache.get("v2", condition, pageable, request,
+                () -> memberRepository.searchPageSimple(condition, pageable));
     }
 
     @GetMapping("/v3/members")
-    public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPageComplex(condition, pageable);
+    public ResponseEntity<byte[]> searchMemberV3(MemberSearchCondition condition, Pageable pageable, WebRequest request) {
+        return memberResponseCache.get("v3", condition, pageable, request,
+                () -> memberRepository.searchPageComplex(condition, pageable));
+    }
+
+    @GetMapping("/v3/members/async")
+    public CompletableFuture<Page<MemberTeamDto>> searchMemberV3Async(MemberSearchCondition condition, Pageable pageable) {
+        return memberSearchService.searchPageAsync(condition, pageable);
+    }
+
+    @GetMapping("/v5/members")
+    public Page<MemberTeamDto> searchMemberV5(MemberSearchCondition condition, Pageable pageable) {
+        return memberSearchService.searchPageFromSnapshot(condition, pageable);
+    }
+
+    @GetMapping("/v2/members/prefix")
+    public List<MemberTeamDto> searchMemberByUsernamePrefix(@RequestParam String prefix,
+                                                            @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        return memberRepository.searchByUsernamePrefix(prefix, limit);
+    }
+
+    @GetMapping("/v4/members")
+    public CursorSlice<MemberTeamDto> searchMemberV4(MemberSearchCondition condition,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "20") int size) {
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be positive");
+        }
+        return memberRepository.searchSlice(condition, cursor, size);
+    }
+
+    @GetMapping("/v2/members/export")
+    public ResponseEntity<StreamingResponseBody> exportMembers(MemberSearchCondition condition,
+                                                               @RequestParam(defaultValue = "ndjson") String format) {
+        if ("csv".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=members.csv")
+                    .body(out -> memberExportService.exportCsv(condition, out));
+        }
+        if (!"ndjson".equalsIgnoreCase(format)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "unsupported format");
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(out -> memberExportService.exportNdjson(condition, out));
+    }
+
+    // 내부 예외 메시지를 그대로 내려주지 않도록 cursor 오류만 400 으로 바꾼다.
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> invalidCursor(InvalidCursorException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("invalid cursor");
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,110 @@
+package com.querydsl.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.repository.TableVersions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 검색 응답(JSON)을 직렬화된 byte[] 로 캐시하고, member / team 테이블 버전으로 ETag 를 만든다.
+ * 버전이 그대로이면 If-None-Match 요청에는 쿼리 없이 304 를, 같은 조건(normalized) + Pageable 요청에는 캐시된 byte[] 를 돌려준다.
+ * 캐시 크기는 byte 합계로 제한한다.
+ * 버전은 프로세스마다 따로 세므로 다른 인스턴스(또는 JDBC 로 직접)의 쓰기는 버전을 올리지 않는다.
+ * 그래서 ETag 에 ttl 단위 시간 구간을 넣고 캐시도 ttl 뒤에 만료시켜, 그런 쓰기도 최대 ttl 뒤에는 응답에 반영한다.
+ * (검색 결과 캐시 memberSearch 도 같은 이유로 expireAfterWrite 가 있으므로 최악의 경우 두 만료 시간의 합만큼 늦다)
+ * member.response-cache.enabled=false 이면 ETag 없이 매 요청마다 검색하고 직렬화한다. (부하 측정용)
+ */
+@Component
+public class MemberResponseCache {
+
+    private final TableVersions tableVersions;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final Cache<List<Object>, byte[]> responses;
+    // 테스트에서 시간을 옮길 수 있도록 ETag 구간과 캐시 만료가 같은 시계를 쓴다.
+    volatile LongSupplier clock = System::currentTimeMillis;
+
+    public MemberResponseCache(TableVersions tableVersions, ObjectMapper objectMapper,
+                               @Value("${member.response-cache.enabled:true}") boolean enabled,
+                               @Value("${member.response-cache.max-size:16MB}") DataSize maxSize,
+                               @Value("${member.response-cache.ttl:30s}") Duration ttl) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            throw new IllegalArgumentException("member.response-cache.ttl must be positive: " + ttl);
+        }
+        this.tableVersions = tableVersions;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.ttlMillis = ttl.toMillis();
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<List<Object>, byte[]>weigher((key, body) -> body.length)
+                .expireAfterWrite(ttl)
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.getAsLong()))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @param endpoint 응답 형식이 같은 요청끼리 묶는 이름 (/v2, /v3 는 결과가 같아도 따로 캐시한다)
+     * @return 304 이면 null (응답은 WebRequest 에 이미 설정되어 있다)
+     */
+    public ResponseEntity<byte[]> get(String endpoint, MemberSearchCondition condition, Pageable pageable,
+                                      WebRequest request, Supplier<?> search) {
+        if (!enabled) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(serialize(search.get()));
+        }
+        // 쿼리보다 먼저 버전을 읽는다. 그 사이에 커밋된 쓰기는 다음 버전에서 다시 읽는다.
+        String etag = "\"" + tableVersions.version(TableVersions.MEMBER) + "-"
+                + tableVersions.version(TableVersions.TEAM) + "-" + clock.getAsLong() / ttlMillis + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        // 쿼리와 직렬화는 Caffeine 의 get(key, mappingFunction) 밖에서 한다.
+        // mapping function 안에서 실행하면 같은 bin 의 다른 key 에 대한 쓰기까지 쿼리 시간 동안 막힌다.
+        // 같은 key 를 동시에 놓친 요청은 각자 검색하고 나중에 넣은 값이 남는다. (결과는 같은 ETag 버전의 것)
+        List<Object> key = List.of(endpoint, condition.normalized(), pageable, etag);
+        byte[] body = responses.getIfPresent(key);
+        if (body == null) {
+            body = serialize(search.get());
+            responses.put(key, body);
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    public Cache<List<Object>, byte[]> getNativeCache() {
+        return responses;
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.querydsl.controller;
+
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.repository.ReactiveMemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * /v2, /v3 와 같은 검색을 R2DBC 로 실행한다. 요청 스레드는 DB 응답을 기다리지 않는다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class ReactiveMemberController {
+
+    private final ReactiveMemberRepository reactiveMemberRepository;
+
+    @GetMapping("/reactive/v2/members")
+    public Mono<Page<MemberTeamDto>> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
+        return reactiveMemberRepository.searchPageSimple(condition, pageable);
+    }
+
+    @GetMapping("/reactive/v3/members")
+    public Mono<Page<MemberTeamDto>> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
+        return reactiveMemberRepository.searchPageComplex(condition, pageable);
+    }
+
+    //전체 검색 결과를 한 줄씩 흘려보낸다.
+    @GetMapping(value = "/reactive/members", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MemberTeamDto> streamMembers(MemberSearchCondition condition) {
+        return reactiveMemberRepository.search(condition);
+    }
+}
@@ -0,0 +1,21 @@
+package com.querydsl.controller;
+
+import com.querydsl.dto.TeamStatsDto;
+import com.querydsl.repository.TeamStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final TeamStatsRepository teamStatsRepository;
+
+    @GetMapping("/v1/teams/stats")
+    public List<TeamStatsDto> teamStats() {
+        return teamStatsRepository.findTeamStats();
+    }
+}
@@ -0,0 +1,24 @@
+package com.querydsl.datasource;
+
+/**
+ * 트랜잭션 밖에서 실행되는 조회(GET 요청)를 replica 로 보낼지 표시한다.
+ */
+public final class ReadOnlyRequestContext {
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+
+    private ReadOnlyRequestContext() {
+    }
+
+    public static void markReadOnly() {
+        READ_ONLY.set(Boolean.TRUE);
+    }
+
+    public static boolean isReadOnly() {
+        return READ_ONLY.get() != null;
+    }
+
+    public static void clear() {
+        READ_ONLY.remove();
+    }
+}
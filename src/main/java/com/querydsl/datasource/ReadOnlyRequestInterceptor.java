@@ -0,0 +1,33 @@
+package com.querydsl.datasource;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * GET 요청 동안 ReadOnlyRequestContext 를 켠다. 요청 안의 쓰기 트랜잭션은 여전히 primary 로 간다.
+ */
+public class ReadOnlyRequestInterceptor implements AsyncHandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            ReadOnlyRequestContext.markReadOnly();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        ReadOnlyRequestContext.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReadOnlyRequestContext.clear();
+    }
+}
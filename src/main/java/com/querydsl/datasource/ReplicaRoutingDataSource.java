@@ -0,0 +1,233 @@
+package com.querydsl.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * read-only 트랜잭션(또는 GET 요청)의 커넥션은 replica 에서, 나머지는 primary 에서 가져온다.
+ * 커넥션을 얻는 시점에 트랜잭션의 readOnly 가 정해져 있어야 하므로 LazyConnectionDataSourceProxy 로 감싸서 사용한다.
+ * <ul>
+ *     <li>replica 는 round-robin 으로 고르고, 주기적으로 상태(와 지연)를 확인해 문제가 있는 replica 는 제외한다.</li>
+ *     <li>사용 가능한 replica 가 없거나 커넥션을 얻지 못하면 primary 를 사용한다.</li>
+ *     <li>쓰기 트랜잭션이 커밋된 후 sticky 시간 동안은 읽기도 primary 로 보낸다. 지연을 측정하고 있으면 측정된 지연만큼 늘린다.</li>
+ * </ul>
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements InitializingBean, DisposableBean {
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private long stickyAfterWriteNanos;
+    private String lagQuery;
+    private long maxLagSeconds = 5;
+
+    private volatile long lastWriteCommitNanos = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+    private ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+    }
+
+    public void setHealthCheckInterval(Duration healthCheckInterval) {
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    public void setStickyAfterWrite(Duration stickyAfterWrite) {
+        this.stickyAfterWriteNanos = stickyAfterWrite.toNanos();
+    }
+
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLagSeconds = maxLag.getSeconds();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        checkReplicas();
+        if (!replicas.isEmpty() && !healthCheckInterval.isZero()) {
+            healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "replica-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = healthCheckInterval.toMillis();
+            healthChecker.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = route();
+        if (replica != null) {
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException | RuntimeException e) {
+                replica.markDown(e);
+            }
+        }
+        return primaryConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Replica replica = route();
+        if (replica != null) {
+            try {
+                return replica.dataSource.getConnection(username, password);
+            } catch (SQLException | RuntimeException e) {
+                replica.markDown(e);
+            }
+        }
+        registerWriteCommitCallback();
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * replica 로 보낼 요청이면 사용할 replica, 아니면 null (primary).
+     */
+    private Replica route() {
+        if (replicas.isEmpty() || !isReadOnly() || isSticky()) {
+            return null;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 상태 확인을 즉시 한 번 실행한다.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            replica.check();
+        }
+    }
+
+    public boolean isHealthy(String replicaName) {
+        return replicas.stream().anyMatch(replica -> replica.name.equals(replicaName) && replica.healthy);
+    }
+
+    private static boolean isReadOnly() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        }
+        return ReadOnlyRequestContext.isReadOnly();
+    }
+
+    private boolean isSticky() {
+        long window = stickyAfterWriteNanos;
+        for (Replica replica : replicas) {
+            if (replica.healthy && replica.lagSeconds > 0) {
+                window = Math.max(window, TimeUnit.SECONDS.toNanos(replica.lagSeconds));
+            }
+        }
+        return window > 0 && System.nanoTime() - lastWriteCommitNanos < window;
+    }
+
+    private Connection primaryConnection() throws SQLException {
+        registerWriteCommitCallback();
+        return primary.getConnection();
+    }
+
+    private void registerWriteCommitCallback() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lastWriteCommitNanos = System.nanoTime();
+                }
+            });
+        }
+    }
+
+    private final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile long lagSeconds;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private void check() {
+            try (Connection connection = dataSource.getConnection()) {
+                if (!connection.isValid(2)) {
+                    markDown(null);
+                    return;
+                }
+                long lag = 0;
+                if (StringUtils.hasText(lagQuery)) {
+                    try (Statement statement = connection.createStatement();
+                         ResultSet rs = statement.executeQuery(lagQuery)) {
+                        lag = rs.next() ? rs.getLong(1) : Long.MAX_VALUE;
+                    }
+                }
+                lagSeconds = lag;
+                if (lag > maxLagSeconds) {
+                    if (healthy) {
+                        log.warn("replica {} is {}s behind primary, routing reads to other servers", name, lag);
+                    }
+                    healthy = false;
+                    return;
+                }
+                if (!healthy) {
+                    log.info("replica {} is back", name);
+                }
+                healthy = true;
+            } catch (SQLException | RuntimeException e) {
+                markDown(e);
+            }
+        }
+
+        private void markDown(Exception e) {
+            if (healthy) {
+                log.warn("replica {} is unavailable, falling back to primary: {}", name,
+                        e == null ? "connection is not valid" : e.getMessage());
+            }
+            healthy = false;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.querydsl.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties("datasource.routing")
+public class RoutingDataSourceProperties {
+
+    /**
+     * true 이면 read-only 트랜잭션과 MemberController GET 요청을 replica 로 보낸다.
+     */
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * replica 상태 확인 주기.
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * 쓰기 트랜잭션 커밋 후 이 시간 동안은 읽기도 primary 로 보낸다. 0 이면 사용하지 않는다.
+     */
+    private Duration stickyAfterWrite = Duration.ZERO;
+
+    /**
+     * replica 지연(초)을 숫자 하나로 돌려주는 쿼리. 예) pt-heartbeat 테이블 조회. 비워두면 지연을 확인하지 않는다.
+     */
+    private String lagQuery;
+
+    /**
+     * 지연이 이 값보다 큰 replica 는 사용하지 않는다.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+    }
+}
@@ -0,0 +1,32 @@
+package com.querydsl.dto;
+
+import lombok.Getter;
+
+/**
+ * team 통계의 나이대 구간. 어느 구간에도 속하지 않는 나이는 OTHER 로 센다.
+ */
+@Getter
+public enum AgeBucket {
+    AGE_0_11("0~11살", 0, 11),
+    AGE_12_20("12~20살", 12, 20),
+    OTHER("기타", null, null);
+
+    private final String label;
+    private final Integer from;
+    private final Integer to;
+
+    AgeBucket(String label, Integer from, Integer to) {
+        this.label = label;
+        this.from = from;
+        this.to = to;
+    }
+
+    public static AgeBucket of(int age) {
+        for (AgeBucket bucket : values()) {
+            if (bucket.from != null && age >= bucket.from && age <= bucket.to) {
+                return bucket;
+            }
+        }
+        return OTHER;
+    }
+}
@@ -2,12 +2,30 @@ package com.querydsl.dto;
 
 import lombok.Data;
 
+import static org.springframework.util.StringUtils.hasText;
+
 @Data
 public class MemberSearchCondition {
 
     private String username;
+    private String usernamePrefix;
+    private String usernameContains;
     private String teamName;
     private Integer ageGoe;
     private Integer ageLoe;
 
+    /**
+     * 빈 문자열과 null 을 같은 조건으로 취급한 사본. 캐시 키로 사용한다.
+     */
+    public MemberSearchCondition normalized() {
+        MemberSearchCondition normalized = new MemberSearchCondition();
+        normalized.setUsername(hasText(username) ? username : null);
+        normalized.setUsernamePrefix(hasText(usernamePrefix) ? usernamePrefix : null);
+        normalized.setUsernameContains(hasText(usernameContains) ? usernameContains : null);
+        normalized.setTeamName(hasText(teamName) ? teamName : null);
+        normalized.setAgeGoe(ageGoe);
+        normalized.setAgeLoe(ageLoe);
+        return normalized;
+    }
+
 }
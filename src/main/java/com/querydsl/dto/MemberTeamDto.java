@@ -1,16 +1,21 @@
 package com.querydsl.dto;
 
 import com.querydsl.core.annotations.QueryProjection;
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 
-@Data
+// 검색 결과 캐시에서 여러 요청이 같은 객체를 공유하므로 변경할 수 없게 둔다.
+@Getter
+@ToString
+@EqualsAndHashCode
 public class MemberTeamDto {
 
-    private Long memberId;
-    private String username;
-    private int age;
-    private Long teamId;
-    private String teamName;
+    private final Long memberId;
+    private final String username;
+    private final int age;
+    private final Long teamId;
+    private final String teamName;
 
     @QueryProjection
     public MemberTeamDto(Long memberId, String username, int age, Long teamId, String teamName) {
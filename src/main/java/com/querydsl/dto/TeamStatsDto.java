@@ -0,0 +1,34 @@
+package com.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+public class TeamStatsDto {
+
+    private Long teamId;
+    private String teamName;
+    private long memberCount;
+    private Double avgAge;
+    private Integer minAge;
+    private Integer maxAge;
+    private Map<String, Long> ageHistogram;
+
+    @QueryProjection
+    public TeamStatsDto(Long teamId, String teamName, long memberCount, long ageSum, Integer minAge, Integer maxAge,
+                        long age0To11, long age12To20, long ageOther) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.memberCount = memberCount;
+        this.avgAge = memberCount == 0 ? null : (double) ageSum / memberCount;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.ageHistogram = new LinkedHashMap<>();
+        this.ageHistogram.put(AgeBucket.AGE_0_11.getLabel(), age0To11);
+        this.ageHistogram.put(AgeBucket.AGE_12_20.getLabel(), age12To20);
+        this.ageHistogram.put(AgeBucket.OTHER.getLabel(), ageOther);
+    }
+}
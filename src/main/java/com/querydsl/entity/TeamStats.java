@@ -0,0 +1,40 @@
+package com.querydsl.entity;
+
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+
+/**
+ * team 별 member 통계 요약 테이블. member 변경 시 TeamStatsEventListener 가 SQL 로 직접 갱신하므로
+ * 엔티티로는 읽기만 한다.
+ */
+@Entity
+@Table(name = "team_stats")
+@Immutable
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class TeamStats {
+
+    @Id
+    @Column(name = "team_id")
+    private Long teamId;
+
+    private long memberCount;
+
+    private long ageSum;
+
+    private Integer minAge;
+
+    private Integer maxAge;
+
+    @Column(name = "age_0_11")
+    private long age0To11;
+
+    @Column(name = "age_12_20")
+    private long age12To20;
+
+    @Column(name = "age_other")
+    private long ageOther;
+}
@@ -0,0 +1,88 @@
+package com.querydsl.metrics;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.NonUniqueResultException;
+import com.querydsl.core.QueryResults;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAQuery;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * fetch / fetchOne / fetchCount / fetchResults / stream / iterate 실행을 QueryMetrics 로 기록하는 JPAQuery.
+ * stream, iterate 는 닫을 때까지의 시간을 기록한다.
+ */
+public class MeteredJPAQuery<T> extends JPAQuery<T> {
+
+    private final QueryMetrics queryMetrics;
+
+    public MeteredJPAQuery(EntityManager em, JPQLTemplates templates, QueryMetrics queryMetrics) {
+        super(em, templates);
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Override
+    public List<T> fetch() {
+        return queryMetrics.recordQuery(this::toString, this::bindCount, super::fetch);
+    }
+
+    @Override
+    public T fetchOne() throws NonUniqueResultException {
+        return queryMetrics.recordQuery(this::toString, this::bindCount, super::fetchOne);
+    }
+
+    @Override
+    @Deprecated
+    public long fetchCount() {
+        return queryMetrics.recordQuery(this::toString, this::bindCount, super::fetchCount);
+    }
+
+    @Override
+    @Deprecated
+    public QueryResults<T> fetchResults() {
+        return queryMetrics.recordQuery(this::toString, this::bindCount, super::fetchResults);
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return queryMetrics.recordStream(this::toString, this::bindCount, super::stream);
+    }
+
+    @Override
+    public CloseableIterator<T> iterate() {
+        QueryMetrics.Recording recording = queryMetrics.start(this::toString, this::bindCount);
+        CloseableIterator<T> iterator;
+        try {
+            iterator = super.iterate();
+        } catch (RuntimeException | Error e) {
+            recording.finish(false);
+            throw e;
+        }
+        return new CloseableIterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void close() {
+                try {
+                    iterator.close();
+                } finally {
+                    recording.finish(true);
+                }
+            }
+        };
+    }
+
+    private int bindCount() {
+        return serialize(false).getConstants().size();
+    }
+}
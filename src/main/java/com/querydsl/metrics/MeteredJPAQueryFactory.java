@@ -0,0 +1,40 @@
+package com.querydsl.metrics;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.jpa.impl.JPADeleteClause;
+import com.querydsl.jpa.impl.JPAProvider;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+
+import javax.persistence.EntityManager;
+
+/**
+ * select / selectFrom 으로 만든 쿼리는 MeteredJPAQuery, update / delete 는 MeteredJPAUpdateClause / MeteredJPADeleteClause 가 되도록 하는 JPAQueryFactory.
+ */
+public class MeteredJPAQueryFactory extends JPAQueryFactory {
+
+    private final EntityManager entityManager;
+    private final QueryMetrics queryMetrics;
+
+    public MeteredJPAQueryFactory(EntityManager entityManager, QueryMetrics queryMetrics) {
+        super(entityManager);
+        this.entityManager = entityManager;
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Override
+    public JPAQuery<?> query() {
+        return new MeteredJPAQuery<Void>(entityManager, JPAProvider.getTemplates(entityManager), queryMetrics);
+    }
+
+    @Override
+    public JPAUpdateClause update(EntityPath<?> path) {
+        return new MeteredJPAUpdateClause(entityManager, path, queryMetrics);
+    }
+
+    @Override
+    public JPADeleteClause delete(EntityPath<?> path) {
+        return new MeteredJPADeleteClause(entityManager, path, queryMetrics);
+    }
+}
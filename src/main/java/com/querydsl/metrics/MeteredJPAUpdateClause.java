@@ -0,0 +1,25 @@
+package com.querydsl.metrics;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+
+import javax.persistence.EntityManager;
+
+/**
+ * execute 를 QueryMetrics 로 기록하는 JPAUpdateClause.
+ */
+public class MeteredJPAUpdateClause extends JPAUpdateClause {
+
+    private final QueryMetrics queryMetrics;
+
+    public MeteredJPAUpdateClause(EntityManager em, EntityPath<?> entity, QueryMetrics queryMetrics) {
+        super(em, entity);
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Override
+    public long execute() {
+        // 바인딩 파라미터 목록은 밖으로 노출되지 않는다.
+        return queryMetrics.recordQuery(this::toString, null, super::execute);
+    }
+}
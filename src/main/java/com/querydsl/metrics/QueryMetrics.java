@@ -0,0 +1,148 @@
+package com.querydsl.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 쿼리 실행 시간, 결과 건수, statement 수를 Micrometer 로 기록하고 느린 쿼리는 JPQL 과 함께 로그로 남긴다.
+ * querydsl.metrics.slow-query-threshold 가 0 이면 느린 쿼리 로그를 남기지 않는다.
+ */
+@Component
+public class QueryMetrics {
+
+    private static final Logger slowQueryLog = LoggerFactory.getLogger("com.querydsl.slowquery");
+
+    private final MeterRegistry registry;
+    private final long slowQueryThresholdNanos;
+
+    public QueryMetrics(MeterRegistry registry,
+                        @Value("${querydsl.metrics.slow-query-threshold:500ms}") Duration slowQueryThreshold) {
+        this.registry = registry;
+        this.slowQueryThresholdNanos = slowQueryThreshold.toNanos();
+    }
+
+    /**
+     * 쿼리 한 건의 실행을 기록한다. jpql 과 bindCount 는 느린 쿼리일 때만 계산한다. bindCount 를 알 수 없으면 null 을 넘긴다.
+     */
+    public <T> T recordQuery(Supplier<String> jpql, IntSupplier bindCount, Supplier<T> execution) {
+        Recording recording = start(jpql, bindCount);
+        try {
+            T result = execution.get();
+            recording.finish(true);
+            return result;
+        } catch (RuntimeException | Error e) {
+            recording.finish(false);
+            throw e;
+        }
+    }
+
+    /**
+     * stream 으로 읽는 쿼리는 실행부터 stream 을 닫을 때까지(끝까지 읽는 시간 포함)를 기록한다.
+     * Hibernate 의 stream 은 terminal operation 이 끝나면 스스로 닫힌다. 닫히지 않은 stream 은 기록되지 않는다.
+     */
+    public <T> Stream<T> recordStream(Supplier<String> jpql, IntSupplier bindCount, Supplier<Stream<T>> execution) {
+        Recording recording = start(jpql, bindCount);
+        Stream<T> stream;
+        try {
+            stream = execution.get();
+        } catch (RuntimeException | Error e) {
+            recording.finish(false);
+            throw e;
+        }
+        return stream.onClose(() -> recording.finish(true));
+    }
+
+    /**
+     * 실행 시간을 재기 시작한다. recordQuery, recordStream 으로 감쌀 수 없는 실행(iterate 등)에서 쓴다.
+     */
+    public Recording start(Supplier<String> jpql, IntSupplier bindCount) {
+        return new Recording(QueryMetricsContext.current(), jpql, bindCount, System.nanoTime());
+    }
+
+    /**
+     * 실행 중인 쿼리 한 건. finish 는 처음 한 번만 기록한다.
+     */
+    public final class Recording {
+
+        private final QueryMetricsContext context;
+        private final Supplier<String> jpql;
+        private final IntSupplier bindCount;
+        private final long start;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private Recording(QueryMetricsContext context, Supplier<String> jpql, IntSupplier bindCount, long start) {
+            this.context = context;
+            this.jpql = jpql;
+            this.bindCount = bindCount;
+            this.start = start;
+        }
+
+        public void finish(boolean success) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("querydsl.query")
+                    .description("Querydsl/JPQL query execution time")
+                    .tags("method", context.getMethod(), "shape", context.getShape(),
+                            "outcome", success ? "success" : "error")
+                    .register(registry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+
+            if (slowQueryThresholdNanos > 0 && elapsed >= slowQueryThresholdNanos) {
+                slowQueryLog.warn("slow query {} ms [method={}, shape={}, bindParameters={}] {}",
+                        TimeUnit.NANOSECONDS.toMillis(elapsed), context.getMethod(), context.getShape(),
+                        bindCount == null ? "?" : bindCount.getAsInt(), jpql.get());
+            }
+        }
+    }
+
+    void recordRepositoryCall(QueryMetricsContext context, long elapsedNanos, long statements, Object result) {
+        Timer.builder("querydsl.repository.calls")
+                .description("Repository method execution time")
+                .tags("method", context.getMethod(), "shape", context.getShape())
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        DistributionSummary.builder("querydsl.repository.statements")
+                .description("SQL statements executed per repository call")
+                .tags("method", context.getMethod(), "shape", context.getShape())
+                .register(registry)
+                .record(statements);
+
+        long rows = rowsOf(result);
+        if (rows >= 0) {
+            DistributionSummary.builder("querydsl.repository.rows")
+                    .description("Rows returned per repository call")
+                    .tags("method", context.getMethod(), "shape", context.getShape())
+                    .register(registry)
+                    .record(rows);
+        }
+    }
+
+    private static long rowsOf(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof org.springframework.data.domain.Slice) {
+            return ((org.springframework.data.domain.Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof com.querydsl.dto.CursorSlice) {
+            return ((com.querydsl.dto.CursorSlice<?>) result).getContent().size();
+        }
+        return -1;
+    }
+}
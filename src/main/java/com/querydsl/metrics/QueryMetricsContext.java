@@ -0,0 +1,88 @@
+package com.querydsl.metrics;
+
+import com.querydsl.dto.MemberSearchCondition;
+
+import java.util.StringJoiner;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 현재 스레드에서 실행 중인 repository 메서드와 검색 조건 shape. 쿼리 메트릭의 태그로 사용한다.
+ */
+public final class QueryMetricsContext implements AutoCloseable {
+
+    static final QueryMetricsContext UNKNOWN = new QueryMetricsContext("unknown", "n/a", null);
+
+    private static final ThreadLocal<QueryMetricsContext> CURRENT = new ThreadLocal<>();
+
+    private final String method;
+    private final String shape;
+    private final QueryMetricsContext previous;
+
+    private QueryMetricsContext(String method, String shape, QueryMetricsContext previous) {
+        this.method = method;
+        this.shape = shape;
+        this.previous = previous;
+    }
+
+    public static QueryMetricsContext open(String method, String shape) {
+        QueryMetricsContext context = new QueryMetricsContext(method, shape, CURRENT.get());
+        CURRENT.set(context);
+        return context;
+    }
+
+    public static QueryMetricsContext current() {
+        QueryMetricsContext context = CURRENT.get();
+        return context == null ? UNKNOWN : context;
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * username / teamName / ageGoe / ageLoe 중 값이 있는 조건 이름을 이어 붙인다. 최대 16 가지 값만 나온다.
+     */
+    public static String shapeOf(MemberSearchCondition condition) {
+        if (condition == null) {
+            return "n/a";
+        }
+        StringJoiner shape = new StringJoiner("+");
+        if (hasText(condition.getUsername())) {
+            shape.add("username");
+        }
+        if (hasText(condition.getUsernamePrefix())) {
+            shape.add("usernamePrefix");
+        }
+        if (hasText(condition.getUsernameContains())) {
+            shape.add("usernameContains");
+        }
+        if (hasText(condition.getTeamName())) {
+            shape.add("teamName");
+        }
+        if (condition.getAgeGoe() != null) {
+            shape.add("ageGoe");
+        }
+        if (condition.getAgeLoe() != null) {
+            shape.add("ageLoe");
+        }
+        return shape.length() == 0 ? "none" : shape.toString();
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    @Override
+    public void close() {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.querydsl.metrics;
+
+import com.querydsl.dto.MemberSearchCondition;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * repository 메서드 단위로 메서드 이름과 검색 조건 shape 를 QueryMetricsContext 에 올려두고,
+ * 호출 시간 / 실행된 statement 수 / 결과 건수를 기록한다. 중첩 호출은 가장 바깥 메서드 기준으로 기록한다.
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    private final QueryMetrics queryMetrics;
+
+    public RepositoryMetricsAspect(QueryMetrics queryMetrics) {
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Around("execution(public * com.querydsl.repository.MemberRepositoryCustomImpl.*(..))"
+            + " || execution(public * com.querydsl.repository.TeamRepositoryCustomImpl.*(..))"
+            + " || execution(public * com.querydsl.repository.MemberJpaRepository.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (QueryMetricsContext.isActive()) {
+            return joinPoint.proceed();
+        }
+
+        String shape = "n/a";
+        for (Object arg : joinPoint.getArgs()) {
+            if (arg instanceof MemberSearchCondition) {
+                shape = QueryMetricsContext.shapeOf((MemberSearchCondition) arg);
+                break;
+            }
+        }
+
+        long statementsBefore = StatementCountingInspector.count();
+        long start = System.nanoTime();
+        Object result = null;
+        try (QueryMetricsContext context = QueryMetricsContext.open(joinPoint.getSignature().getName(), shape)) {
+            try {
+                result = joinPoint.proceed();
+                return result;
+            } finally {
+                queryMetrics.recordRepositoryCall(context, System.nanoTime() - start,
+                        StatementCountingInspector.count() - statementsBefore, result);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.querydsl.repository;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceUnitUtil;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch 로 엔티티를 저장한다. batchSize 마다 flush 하고 이번에 저장한 엔티티만 detach 해서 영속성 컨텍스트가 커지지 않도록 한다.
+ * 호출한 쪽이 이미 관리하던 엔티티는 그대로 둔다. (호출한 쪽의 영속성 컨텍스트를 유지한다)
+ * 식별자가 있는 엔티티는 merge(upsert), 없는 엔티티는 persist 한다.
+ */
+final class BatchWriter {
+
+    private BatchWriter() {
+    }
+
+    static <T> int saveAll(EntityManager em, Iterable<T> entities, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+
+        PersistenceUnitUtil unitUtil = em.getEntityManagerFactory().getPersistenceUnitUtil();
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(batchSize);
+        try {
+            int count = 0;
+            List<Object> written = new ArrayList<>(batchSize);
+            for (T entity : entities) {
+                Object id = unitUtil.getIdentifier(entity);
+                if (id == null) {
+                    em.persist(entity);
+                    written.add(entity);
+                } else if (isManaged(session, entity, id)) {
+                    em.merge(entity);
+                } else {
+                    written.add(em.merge(entity));
+                }
+                if (++count % batchSize == 0) {
+                    flushAndDetach(session, written);
+                }
+            }
+            flushAndDetach(session, written);
+            return count;
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+    }
+
+    // 같은 id 의 엔티티가 이미 영속성 컨텍스트에 있으면 merge 는 그 인스턴스를 돌려준다.
+    private static boolean isManaged(SessionImplementor session, Object entity, Object id) {
+        EntityPersister persister = session.getEntityPersister(null, entity);
+        return session.getPersistenceContextInternal()
+                .getEntity(session.generateEntityKey((Serializable) id, persister)) != null;
+    }
+
+    private static void flushAndDetach(Session session, List<Object> written) {
+        session.flush();
+        written.forEach(session::evict);
+        written.clear();
+    }
+}
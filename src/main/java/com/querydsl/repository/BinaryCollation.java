@@ -0,0 +1,73 @@
+package com.querydsl.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 메모리 인덱스(UsernameIndex, MemberSnapshot)는 문자열을 Java equals / compareTo / startsWith 로 비교한다.
+ * MySQL 컬럼의 collation 이 binary + NO PAD 가 아니면(대소문자, 끝 공백을 무시하면) DB 로 검색한 결과와 달라지므로
+ * 사용하기 전에 확인한다. MySQL 이 아니면 검사하지 않는다. (pad_attribute 가 없는 MySQL 5.7 은 모든 collation 이 PAD SPACE 이다)
+ * MySQL 8 의 컬럼은 db/member_team_binary_collation.sql 로 바꾼다.
+ */
+@Slf4j
+public final class BinaryCollation {
+
+    private BinaryCollation() {
+    }
+
+    /**
+     * @param columns "table.column" 형식
+     * @return collation 이 binary + NO PAD 가 아니거나 확인할 수 없는 컬럼. 모두 맞으면 빈 목록
+     */
+    public static List<String> mismatches(JdbcTemplate jdbcTemplate, String... columns) {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equalsIgnoreCase(product)) {
+            return List.of();
+        }
+        List<String> mismatches = new ArrayList<>(List.of(columns));
+        List<Object> args = new ArrayList<>();
+        for (String column : columns) {
+            String[] parts = column.split("\\.");
+            args.add(parts[0]);
+            args.add(parts[1]);
+        }
+        try {
+            jdbcTemplate.query("select c.table_name, c.column_name, c.collation_name, co.pad_attribute"
+                    + " from information_schema.columns c"
+                    + " left join information_schema.collations co on co.collation_name = c.collation_name"
+                    + " where c.table_schema = database() and ("
+                    + String.join(" or ", Collections.nCopies(columns.length, "(c.table_name = ? and c.column_name = ?)"))
+                    + ")", rs -> {
+                String column = rs.getString(1).toLowerCase(Locale.ROOT) + "." + rs.getString(2).toLowerCase(Locale.ROOT);
+                String collation = rs.getString(3);
+                boolean exact = isBinaryNoPad(collation, rs.getString(4));
+                int index = mismatches.indexOf(column);
+                if (index < 0) {
+                    return;
+                }
+                if (exact) {
+                    mismatches.remove(index);
+                } else {
+                    mismatches.set(index, column + "(" + collation + ")");
+                }
+            }, args.toArray());
+        } catch (DataAccessException e) {
+            log.warn("cannot read column collations of {}", List.of(columns), e);
+            return List.of(columns);
+        }
+        return mismatches;
+    }
+
+    static boolean isBinaryNoPad(String collation, String padAttribute) {
+        // binary 타입(varbinary)은 collation 이 없고 그대로 비교한다.
+        return collation == null || (collation.endsWith("_bin") && "NO PAD".equalsIgnoreCase(padAttribute));
+    }
+}
@@ -0,0 +1,120 @@
+package com.querydsl.repository;
+
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.dsl.SimpleExpression;
+import com.querydsl.core.types.dsl.StringExpression;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 검색 조건 객체(C)의 값을 where 조건으로 바꾸는 규칙 모음. 한 번 만들어 두고 여러 스레드에서 공유한다.
+ * 값이 있는 조건만 and 로 묶으며, BooleanBuilder 나 Predicate 배열을 만들지 않는다.
+ *
+ * <pre>
+ * ConditionPredicates&lt;TeamSearchCondition&gt; teamPredicates = ConditionPredicates.&lt;TeamSearchCondition&gt;builder()
+ *         .eq(TeamSearchCondition::getName, QTeam.team.name)
+ *         .build();
+ * </pre>
+ */
+public final class ConditionPredicates<C> {
+
+    private final List<Function<C, Predicate>> rules;
+
+    private ConditionPredicates(List<Function<C, Predicate>> rules) {
+        this.rules = List.copyOf(rules);
+    }
+
+    public static <C> Builder<C> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * 값이 있는 조건을 and 로 묶은 Predicate. 조건이 하나도 없으면 null (where 에서 무시된다).
+     */
+    public Predicate toPredicate(C condition) {
+        Predicate result = null;
+        for (Function<C, Predicate> rule : rules) {
+            Predicate predicate = rule.apply(condition);
+            if (predicate != null) {
+                result = result == null ? predicate : ExpressionUtils.and(result, predicate);
+            }
+        }
+        return result;
+    }
+
+    public static final class Builder<C> {
+
+        private final List<Function<C, Predicate>> rules = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * 문자열 값이 비어 있지 않으면 path = value
+         */
+        public Builder<C> eq(Function<C, String> value, StringExpression path) {
+            return rule(condition -> {
+                String v = value.apply(condition);
+                return hasText(v) ? path.eq(v) : null;
+            });
+        }
+
+        /**
+         * 문자열 값이 비어 있지 않으면 path like 'value%' (인덱스 range scan 이 가능한 prefix 검색)
+         */
+        public Builder<C> startsWith(Function<C, String> value, StringExpression path) {
+            return rule(condition -> {
+                String v = value.apply(condition);
+                return hasText(v) ? path.startsWith(v) : null;
+            });
+        }
+
+        /**
+         * 값이 null 이 아니면 path = value
+         */
+        public <T> Builder<C> eqIfPresent(Function<C, T> value, SimpleExpression<T> path) {
+            return rule(condition -> {
+                T v = value.apply(condition);
+                return v != null ? path.eq(v) : null;
+            });
+        }
+
+        /**
+         * 값이 null 이 아니면 path &gt;= value
+         */
+        public <N extends Number & Comparable<?>> Builder<C> goe(Function<C, N> value, NumberExpression<N> path) {
+            return rule(condition -> {
+                N v = value.apply(condition);
+                return v != null ? path.goe(v) : null;
+            });
+        }
+
+        /**
+         * 값이 null 이 아니면 path &lt;= value
+         */
+        public <N extends Number & Comparable<?>> Builder<C> loe(Function<C, N> value, NumberExpression<N> path) {
+            return rule(condition -> {
+                N v = value.apply(condition);
+                return v != null ? path.loe(v) : null;
+            });
+        }
+
+        /**
+         * 그 밖의 조건 (서브쿼리 등). 조건이 없으면 null 을 돌려준다.
+         */
+        public Builder<C> rule(Function<C, Predicate> rule) {
+            rules.add(rule);
+            return this;
+        }
+
+        public ConditionPredicates<C> build() {
+            return new ConditionPredicates<>(rules);
+        }
+    }
+}
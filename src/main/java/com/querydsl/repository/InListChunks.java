@@ -0,0 +1,45 @@
+package com.querydsl.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * IN 조건 값을 maxSize 이하의 chunk 로 나누고, 각 chunk 를 2의 거듭제곱 크기로 채운다(마지막 값 반복).
+ * IN 목록 길이가 몇 가지로 고정되므로 Hibernate query plan cache 와 JDBC statement cache 에 쌓이는 쿼리 종류가 log2(maxSize) 개 정도로 줄어든다.
+ */
+final class InListChunks {
+
+    private InListChunks() {
+    }
+
+    static <T> List<List<T>> split(Collection<T> values, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+
+        List<T> distinct = new ArrayList<>(new LinkedHashSet<>(values));
+        distinct.remove(null);
+
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += maxSize) {
+            List<T> chunk = new ArrayList<>(distinct.subList(from, Math.min(distinct.size(), from + maxSize)));
+            T last = chunk.get(chunk.size() - 1);
+            int paddedSize = paddedSize(chunk.size(), maxSize);
+            while (chunk.size() < paddedSize) {
+                chunk.add(last);
+            }
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    static int paddedSize(int size, int maxSize) {
+        int padded = Integer.highestOneBit(size);
+        if (padded < size) {
+            padded <<= 1;
+        }
+        return Math.min(padded, maxSize);
+    }
+}
@@ -0,0 +1,17 @@
+package com.querydsl.repository;
+
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+
+/**
+ * searchSlice 에 잘못된 continuation token 이 넘어왔을 때. 컨트롤러는 이 예외만 400 으로 바꾼다.
+ */
+public class InvalidCursorException extends InvalidDataAccessApiUsageException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
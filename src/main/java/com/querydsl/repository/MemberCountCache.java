@@ -0,0 +1,68 @@
+package com.querydsl.repository;
+
+import com.querydsl.dto.MemberSearchCondition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 검색 조건별 total count 를 짧은 시간 동안 캐시한다.
+ * member.count-cache.ttl 이 0 이면 (기본값) 캐시하지 않고 매번 count 쿼리를 실행한다.
+ */
+@Component
+public class MemberCountCache {
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<MemberSearchCondition, Entry> entries = new ConcurrentHashMap<>();
+
+    public MemberCountCache(@Value("${member.count-cache.ttl:0s}") Duration ttl,
+                            @Value("${member.count-cache.max-size:1000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    public long get(MemberSearchCondition condition, LongSupplier countQuery) {
+        if (ttlNanos <= 0) {
+            return countQuery.getAsLong();
+        }
+
+        MemberSearchCondition key = condition.normalized();
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt - now > 0) {
+            return entry.total;
+        }
+
+        long total = countQuery.getAsLong();
+        if (entries.size() >= maxSize) {
+            evictExpired(now);
+        }
+        if (entries.size() < maxSize) {
+            entries.put(key, new Entry(total, now + ttlNanos));
+        }
+        return total;
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private void evictExpired(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt - now <= 0);
+    }
+
+    private static final class Entry {
+        private final long total;
+        private final long expiresAt;
+
+        private Entry(long total, long expiresAt) {
+            this.total = total;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
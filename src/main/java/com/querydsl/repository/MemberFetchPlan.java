@@ -0,0 +1,13 @@
+package com.querydsl.repository;
+
+/**
+ * findMember 가 연관된 team 을 어떻게 불러올지 정한다.
+ */
+public enum MemberFetchPlan {
+    /** team 은 프록시로 두고 접근할 때 default_batch_fetch_size 단위로 IN 조회한다. */
+    LAZY,
+    /** member 와 team 을 fetch join 으로 한 번에 조회한다. */
+    FETCH_JOIN,
+    /** Member.team entity graph 를 fetch graph 힌트로 적용한다. */
+    ENTITY_GRAPH
+}
@@ -0,0 +1,74 @@
+package com.querydsl.repository;
+
+import com.querydsl.config.FullTextMatchFunction;
+import com.querydsl.config.QuerydslFunctionContributor;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.entity.QMember;
+import com.querydsl.entity.QTeam;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.repository.sql.SMember;
+import com.querydsl.repository.sql.STeam;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * MemberSearchCondition 을 where 조건으로 바꾸는 규칙. JPA 경로(QMember, QTeam)와 SQL 경로(SMember, STeam)용으로 하나씩 둔다.
+ */
+public final class MemberPredicates {
+
+    public static final ConditionPredicates<MemberSearchCondition> JPA = ConditionPredicates.<MemberSearchCondition>builder()
+            .eq(MemberSearchCondition::getUsername, QMember.member.username)
+            .startsWith(MemberSearchCondition::getUsernamePrefix, QMember.member.username)
+            .rule(condition -> usernameContains(condition.getUsernameContains(), true))
+            .eq(MemberSearchCondition::getTeamName, QTeam.team.name)
+            .goe(MemberSearchCondition::getAgeGoe, QMember.member.age)
+            .loe(MemberSearchCondition::getAgeLoe, QMember.member.age)
+            .build();
+
+    // update / delete 는 join 을 쓸 수 없으므로 team 조건은 서브쿼리로 바꾼다.
+    // 같은 트랜잭션에서 방금 insert 한 member 도 대상이 되도록 부분 일치는 FULLTEXT 대신 like 로 찾는다.
+    public static final ConditionPredicates<MemberSearchCondition> JPA_BULK = ConditionPredicates.<MemberSearchCondition>builder()
+            .eq(MemberSearchCondition::getUsername, QMember.member.username)
+            .startsWith(MemberSearchCondition::getUsernamePrefix, QMember.member.username)
+            .rule(condition -> usernameContains(condition.getUsernameContains(), false))
+            .rule(condition -> !hasText(condition.getTeamName()) ? null : QMember.member.team.id.in(
+                    JPAExpressions
+                            .select(QTeam.team.id)
+                            .from(QTeam.team)
+                            .where(QTeam.team.name.eq(condition.getTeamName()))))
+            .goe(MemberSearchCondition::getAgeGoe, QMember.member.age)
+            .loe(MemberSearchCondition::getAgeLoe, QMember.member.age)
+            .build();
+
+    // R2DBC 경로에는 Hibernate 함수가 없으므로 부분 일치는 like 로 검색한다.
+    public static final ConditionPredicates<MemberSearchCondition> SQL = ConditionPredicates.<MemberSearchCondition>builder()
+            .eq(MemberSearchCondition::getUsername, SMember.member.username)
+            .startsWith(MemberSearchCondition::getUsernamePrefix, SMember.member.username)
+            .rule(condition -> hasText(condition.getUsernameContains())
+                    ? SMember.member.username.contains(condition.getUsernameContains()) : null)
+            .eq(MemberSearchCondition::getTeamName, STeam.team.name)
+            .goe(MemberSearchCondition::getAgeGoe, SMember.member.age)
+            .loe(MemberSearchCondition::getAgeLoe, SMember.member.age)
+            .build();
+
+    private MemberPredicates() {
+    }
+
+    /**
+     * username 부분 일치. like '%x%' 는 인덱스를 쓰지 못하므로 fulltext_match 함수(MySQL FULLTEXT ngram 인덱스)로 검색하고,
+     * ngram 토큰보다 짧은 term 과 phrase 안에 넣을 수 없는 큰따옴표가 있는 term 은 like 로 검색한다.
+     * InnoDB FULLTEXT 인덱스는 커밋될 때 갱신되므로, fullText 이면 같은 트랜잭션에서 아직 커밋하지 않은 member 는 찾지 못한다.
+     */
+    private static Predicate usernameContains(String value, boolean fullText) {
+        if (!hasText(value)) {
+            return null;
+        }
+        if (!fullText || value.length() < FullTextMatchFunction.MIN_TERM_LENGTH || value.indexOf('"') >= 0) {
+            return QMember.member.username.contains(value);
+        }
+        return Expressions.numberTemplate(Double.class,
+                QuerydslFunctionContributor.FULLTEXT_MATCH + "({0}, {1})", QMember.member.username, value).gt(0.0);
+    }
+}
@@ -0,0 +1,15 @@
+package com.querydsl.repository;
+
+/**
+ * findMemberTeams 가 결과를 어떤 방식으로 읽을지 정한다.
+ */
+public enum MemberReadMode {
+    /** 영속성 컨텍스트가 관리하는 Member 엔티티를 읽어서 DTO 로 바꾼다. */
+    ENTITY,
+    /** 읽기 전용 엔티티로 읽는다. 스냅샷을 만들지 않고 dirty checking / flush 대상에서 빠진다. */
+    READ_ONLY,
+    /** @QueryProjection DTO 로 바로 읽는다. 엔티티를 만들지 않는다. */
+    PROJECTION,
+    /** StatelessSession 으로 스크롤하면서 DTO 로 읽는다. 영속성 컨텍스트를 거치지 않아 대량 조회에 쓴다. */
+    STATELESS
+}
@@ -1,11 +1,28 @@
 package com.querydsl.repository;
 
+import com.querydsl.config.CacheConfiguration;
 import com.querydsl.entity.Member;
-import com.querydsl.entity.Team;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.transaction.annotation.Transactional;
 
+// 검색 결과 캐시는 member / team 쓰기가 커밋되면 MemberSearchCacheEvictListener 가 비운다.
 public interface MemberRepository  extends JpaRepository<Member, Long>,
                                            QuerydslPredicateExecutor<Member>, MemberRepositoryCustom {
+    @Transactional(readOnly = true)
     Member findByUsername(String username);
+
+    // JPQL bulk delete 로 실행되어 엔티티 이벤트가 없으므로 직접 비운다.
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.MEMBER_SEARCH, allEntries = true)
+    void deleteAllInBatch();
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.MEMBER_SEARCH, allEntries = true)
+    void deleteAllInBatch(Iterable<Member> entities);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.MEMBER_SEARCH, allEntries = true)
+    void deleteAllByIdInBatch(Iterable<Long> ids);
 }
@@ -1,16 +1,42 @@
 package com.querydsl.repository;
 
+import com.querydsl.dto.CursorSlice;
 import com.querydsl.dto.MemberSearchCondition;
 import com.querydsl.dto.MemberTeamDto;
 import com.querydsl.entity.Member;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Range;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface MemberRepositoryCustom {
+    // search, searchPageSimple, searchPageComplex 의 결과는 캐시에 공유되므로 변경할 수 없다.
     List<MemberTeamDto> search(MemberSearchCondition condition);
+    List<MemberTeamDto> searchByUsernamePrefix(String prefix, int limit);
     List<Member> findMember(MemberSearchCondition condition);
+    // username 은 unique 가 아니므로 username 별로 해당하는 member 를 모두(id 순) 돌려준다. 없는 username 은 key 가 없다.
+    Map<String, List<Member>> findByUsernames(Collection<String> usernames);
+    Map<Long, Member> findByIds(Collection<Long> ids);
+    List<Member> findMember(MemberSearchCondition condition, MemberFetchPlan fetchPlan);
     Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
+    List<MemberTeamDto> searchContent(MemberSearchCondition condition, Pageable pageable);
+    long searchCount(MemberSearchCondition condition);
+    CursorSlice<MemberTeamDto> searchSlice(MemberSearchCondition condition, String cursor, int size);
+    Stream<MemberTeamDto> streamSearch(MemberSearchCondition condition, int fetchSize);
+    List<MemberTeamDto> findMemberTeams(MemberSearchCondition condition, MemberReadMode readMode);
+    long scanMembers(MemberSearchCondition condition, int fetchSize, Consumer<MemberTeamDto> action);
+    long scanMembers(MemberSearchCondition condition, Range<Long> memberIdRange, int fetchSize, Consumer<MemberTeamDto> action);
+    Optional<Range<Long>> findMemberIdRange(MemberSearchCondition condition);
+    int saveAllBatched(Iterable<Member> members, int batchSize);
+    // bulk 연산은 member.id 순 chunk 단위로 커밋되어 원자적이지 않다. 한 번에 커밋/롤백하려면 호출하는 쪽 트랜잭션 안에서 실행한다.
+    long bulkAddAge(MemberSearchCondition condition, int delta);
+    long bulkChangeTeam(MemberSearchCondition condition, Long teamId);
+    long bulkDelete(MemberSearchCondition condition);
 }
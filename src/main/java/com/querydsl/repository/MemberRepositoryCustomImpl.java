@@ -1,150 +1,633 @@
 package com.querydsl.repository;
 
-import com.querydsl.core.QueryResults;
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.config.CacheConfiguration;
+import com.querydsl.config.QuerydslFunctionContributor;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.dto.CursorSlice;
 import com.querydsl.dto.MemberSearchCondition;
 import com.querydsl.dto.MemberTeamDto;
 import com.querydsl.dto.QMemberTeamDto;
 import com.querydsl.entity.Member;
 import com.querydsl.entity.QMember;
 import com.querydsl.entity.QTeam;
+import com.querydsl.entity.Team;
+import com.querydsl.jpa.hibernate.HibernateQuery;
+import com.querydsl.jpa.impl.JPAProvider;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.metrics.QueryMetrics;
+import com.querydsl.repository.snapshot.MemberSnapshotEngine;
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.graph.GraphSemantic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Range;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import static org.aspectj.util.LangUtil.isEmpty;
+import static org.springframework.util.StringUtils.hasText;
 
 
 public class MemberRepositoryCustomImpl implements MemberRepositoryCustom{
 
-    private JPAQueryFactory queryFactory;
+    private static final QMember member = QMember.member;
+    private static final QTeam team = QTeam.team;
 
-    public MemberRepositoryCustomImpl(EntityManager em) {
-        this.queryFactory = new JPAQueryFactory(em);
-    }
+    // projection 은 불변이므로 호출마다 만들지 않는다.
+    private static final QMemberTeamDto memberTeamDto = new QMemberTeamDto(
+            member.id,
+            member.username,
+            member.age,
+            team.id,
+            team.name
+    );
 
-    QMember member = QMember.member;
-    QTeam team = QTeam.team;
+    private final JPAQueryFactory queryFactory;
+    private final EntityManager em;
+    private final MemberCountCache countCache;
+    private final MemberSearchQueryCache searchQueryCache;
+    private final QueryMetrics queryMetrics;
+    private final UsernameIndex usernameIndex;
+    private final MemberSnapshotEngine snapshotEngine;
+    private final TableVersions tableVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean windowCount;
+    private final long bulkChunkSize;
+    private final int inListMaxSize;
 
-    private BooleanExpression usernameEq(String username) {
-        return isEmpty(username) ? null : member.username.eq(username);
+    public MemberRepositoryCustomImpl(EntityManager em, JPAQueryFactory queryFactory, MemberCountCache countCache,
+                                      MemberSearchQueryCache searchQueryCache, QueryMetrics queryMetrics,
+                                      UsernameIndex usernameIndex, MemberSnapshotEngine snapshotEngine,
+                                      TableVersions tableVersions, PlatformTransactionManager transactionManager,
+                                      @Value("${member.paging.window-count:true}") boolean windowCount,
+                                      @Value("${member.bulk.chunk-size:10000}") long bulkChunkSize,
+                                      @Value("${member.in-list.max-size:512}") int inListMaxSize) {
+        this.em = em;
+        this.queryFactory = queryFactory;
+        this.queryMetrics = queryMetrics;
+        this.usernameIndex = usernameIndex;
+        this.snapshotEngine = snapshotEngine;
+        this.tableVersions = tableVersions;
+        this.countCache = countCache;
+        this.searchQueryCache = searchQueryCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.windowCount = windowCount && WindowFunctionSupport.isSupported(em);
+        this.bulkChunkSize = bulkChunkSize;
+        this.inListMaxSize = inListMaxSize;
     }
 
-    private BooleanExpression teamNameEq(String teamName) {
-        return isEmpty(teamName) ? null : team.name.eq(teamName);
-    }
+    private static final int STATELESS_FETCH_SIZE = 1000;
+    // searchSlice 한 번에 읽는 최대 건수
+    static final int MAX_SLICE_SIZE = 1000;
+    // searchByUsernamePrefix 가 돌려주는 최대 건수 (id IN 목록 크기)
+    static final int MAX_PREFIX_LIMIT = 100;
+
+    private static final Param<String> usernameParam = new Param<>(String.class, "username");
+    private static final Param<String> teamNameParam = new Param<>(String.class, "teamName");
+    private static final Param<Integer> ageGoeParam = new Param<>(Integer.class, "ageGoe");
+    private static final Param<Integer> ageLoeParam = new Param<>(Integer.class, "ageLoe");
 
-    private BooleanExpression ageGoe(Integer ageGoe) {
-        return ageGoe == null ? null : member.age.goe(ageGoe);
+    // team 이름 조건이 있으면 team 이 없는 member 는 어차피 걸러지므로 inner join 으로 바꾼다.
+    // (left join 이면 DB 가 member 부터 읽어야 해서 idx_team_name -> idx_member_team_age 경로를 쓰지 못한다.)
+    private <T> JPAQuery<T> selectFromMemberTeam(Expression<T> projection, boolean teamFiltered) {
+        JPAQuery<T> query = queryFactory.select(projection).from(member);
+        return teamFiltered ? query.join(member.team, team) : query.leftJoin(member.team, team);
     }
 
-    private BooleanExpression ageLoe(Integer ageLoe) {
-        return ageLoe == null ? null : member.age.loe(ageLoe);
+    private BooleanExpression memberIdGt(Long lastMemberId) {
+        return lastMemberId == null ? null : member.id.gt(lastMemberId);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfiguration.MEMBER_SEARCH, key = "{#root.methodName, #condition.normalized()}")
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        if (hasText(condition.getUsernamePrefix()) || hasText(condition.getUsernameContains())) {
+            // 부분 일치 조건은 값(term 길이)에 따라 쿼리 모양이 달라지므로 shape 캐시를 쓰지 않는다.
+            return Collections.unmodifiableList(selectFromMemberTeam(memberTeamDto, hasText(condition.getTeamName()))
+                    .where(MemberPredicates.JPA.toPredicate(condition))
+                    .fetch());
+        }
 
-        return queryFactory
-                .select(new QMemberTeamDto(
-                        member.id,
-                        member.username,
-                        member.age,
-                        team.id,
-                        team.name
-                ))
-                .from(member)
-                .leftJoin(member.team, team)
+        // 조건 조합(16가지)별로 JPQL 을 한 번만 만들고, 이후에는 파라미터만 바인딩한다.
+        int shape = 0;
+        Map<Param<?>, Object> params = new HashMap<>(8);
+        if (hasText(condition.getUsername())) {
+            shape |= MemberSearchQueryCache.USERNAME;
+            params.put(usernameParam, condition.getUsername());
+        }
+        if (hasText(condition.getTeamName())) {
+            shape |= MemberSearchQueryCache.TEAM_NAME;
+            params.put(teamNameParam, condition.getTeamName());
+        }
+        if (condition.getAgeGoe() != null) {
+            shape |= MemberSearchQueryCache.AGE_GOE;
+            params.put(ageGoeParam, condition.getAgeGoe());
+        }
+        if (condition.getAgeLoe() != null) {
+            shape |= MemberSearchQueryCache.AGE_LOE;
+            params.put(ageLoeParam, condition.getAgeLoe());
+        }
+
+        MemberSearchQueryCache.CachedQuery cached =
+                searchQueryCache.get(shape, JPAProvider.getTemplates(em), this::searchTemplate);
+        return Collections.unmodifiableList(
+                queryMetrics.recordQuery(cached::getJpql, params::size, () -> cached.fetch(em, params)));
+    }
+
+    private JPAQuery<MemberTeamDto> searchTemplate(int shape) {
+        boolean teamFiltered = (shape & MemberSearchQueryCache.TEAM_NAME) != 0;
+        return selectFromMemberTeam(memberTeamDto, teamFiltered)
                 .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
-                .fetch();
+                        (shape & MemberSearchQueryCache.USERNAME) == 0 ? null : member.username.eq(usernameParam),
+                        (shape & MemberSearchQueryCache.TEAM_NAME) == 0 ? null : team.name.eq(teamNameParam),
+                        (shape & MemberSearchQueryCache.AGE_GOE) == 0 ? null : member.age.goe(ageGoeParam),
+                        (shape & MemberSearchQueryCache.AGE_LOE) == 0 ? null : member.age.loe(ageLoeParam)
+                );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MemberTeamDto> searchByUsernamePrefix(String prefix, int limit) {
+        if (!hasText(prefix) || limit < 1) {
+            return List.of();
+        }
+        int maxResults = Math.min(limit, MAX_PREFIX_LIMIT);
+        // 인덱스는 member.username 이 binary collation 일 때만 올라오므로 두 경로의 비교 / 정렬 결과가 같다. (UsernameIndex.load)
+        if (!usernameIndex.isLoaded()) {
+            return selectFromMemberTeam(memberTeamDto, false)
+                    .where(member.username.startsWith(prefix))
+                    .orderBy(member.username.asc(), member.id.asc())
+                    .limit(maxResults)
+                    .fetch();
+        }
+
+        // 인덱스에서 id 만 찾고 PK 로 조회한다. 인덱스에 남아 있는 삭제된 member 는 여기서 걸러지므로,
+        // maxResults 건이 찰 때까지 다음 id 를 더 읽는다. 순서는 인덱스 순서(username, id)를 따른다.
+        Map<Long, MemberTeamDto> found = new LinkedHashMap<>();
+        int offset = 0;
+        while (found.size() < maxResults) {
+            int wanted = maxResults - found.size();
+            List<Long> ids = usernameIndex.findIdsByPrefix(prefix, offset, wanted);
+            if (ids.isEmpty()) {
+                break;
+            }
+            Map<Long, MemberTeamDto> rows = selectFromMemberTeam(memberTeamDto, false)
+                    .where(member.id.in(ids))
+                    .fetch().stream()
+                    .collect(Collectors.toMap(MemberTeamDto::getMemberId, Function.identity()));
+            for (Long id : ids) {
+                MemberTeamDto row = rows.get(id);
+                if (row != null) {
+                    found.putIfAbsent(id, row);
+                }
+            }
+            if (ids.size() < wanted) {
+                break;
+            }
+            offset += ids.size();
+        }
+        return new ArrayList<>(found.values());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Member> findMember(MemberSearchCondition condition) {
-        return queryFactory
-                .selectFrom(member)
-                .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
+        return findMember(condition, MemberFetchPlan.LAZY);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, List<Member>> findByUsernames(Collection<String> usernames) {
+        Map<String, List<Member>> result = new HashMap<>();
+        for (List<String> chunk : InListChunks.split(usernames, inListMaxSize)) {
+            List<Member> members = queryFactory.selectFrom(member)
+                    .where(member.username.in(chunk))
+                    .orderBy(member.id.asc())
+                    .fetch();
+            for (Member found : members) {
+                result.computeIfAbsent(found.getUsername(), username -> new ArrayList<>()).add(found);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Member> findByIds(Collection<Long> ids) {
+        Map<Long, Member> result = new HashMap<>();
+        for (List<Long> chunk : InListChunks.split(ids, inListMaxSize)) {
+            for (Member found : queryFactory.selectFrom(member).where(member.id.in(chunk)).fetch()) {
+                result.put(found.getId(), found);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findMember(MemberSearchCondition condition, MemberFetchPlan fetchPlan) {
+        JPAQuery<Member> query = selectFromMemberTeam(member, hasText(condition.getTeamName()));
+
+        if (fetchPlan == MemberFetchPlan.FETCH_JOIN) {
+            query.fetchJoin();
+        } else if (fetchPlan == MemberFetchPlan.ENTITY_GRAPH) {
+            query.setHint(GraphSemantic.FETCH.getJpaHintName(), em.getEntityGraph("Member.team"));
+        }
+
+        return query
+                .where(MemberPredicates.JPA.toPredicate(condition))
                 .fetch();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfiguration.MEMBER_SEARCH, key = "{#root.methodName, #condition.normalized(), #pageable}")
     public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
-        QueryResults<MemberTeamDto> results = queryFactory
-                .select(new QMemberTeamDto(
-                        member.id,
-                        member.username,
-                        member.age,
-                        team.id,
-                        team.name
-                ))
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
+        if (!windowCount || countFromSnapshot(condition)) {
+            return searchPageComplex(condition, pageable);
+        }
+        return searchPageWindowCount(condition, pageable);
+    }
+
+    /**
+     * count(*) over() 로 content 와 total 을 한 번에 조회한다. window function 을 지원하는 DB 에서만 호출한다.
+     */
+    Page<MemberTeamDto> searchPageWindowCount(MemberSearchCondition condition, Pageable pageable) {
+        NumberExpression<Long> total = Expressions.numberTemplate(Long.class,
+                QuerydslFunctionContributor.COUNT_OVER + "()");
+
+        List<Tuple> results = selectFromMemberTeam(Projections.tuple(memberTeamDto, total), hasText(condition.getTeamName()))
+                .where(MemberPredicates.JPA.toPredicate(condition))
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
-                .fetchResults();
+                .fetch();
 
-        List<MemberTeamDto> content = results.getResults();
-        long total = results.getTotal();
+        if (results.isEmpty()) {
+            // 마지막 페이지를 넘어선 요청은 total 을 알 수 없으므로 count 쿼리로 보완한다.
+            return PageableExecutionUtils.getPage(List.of(), pageable,
+                    () -> countCache.get(condition, () -> countQuery(condition).fetchOne()));
+        }
 
-        return new PageImpl<>(content, pageable, total);
+        List<MemberTeamDto> content = results.stream()
+                .map(tuple -> tuple.get(memberTeamDto))
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(content, pageable, results.get(0).get(total));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfiguration.MEMBER_SEARCH, key = "{#root.methodName, #condition.normalized(), #pageable}")
     public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
-        List<MemberTeamDto> content = queryFactory
-                .select(new QMemberTeamDto(
-                        member.id,
-                        member.username,
-                        member.age,
-                        team.id,
-                        team.name
-                ))
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
+        List<MemberTeamDto> content = searchContent(condition, pageable);
+
+        // 첫 페이지에서 content 가 page size 보다 작거나, 마지막 페이지이면 count 쿼리를 생략한다.
+        return PageableExecutionUtils.getPage(content, pageable, () -> searchCount(condition));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MemberTeamDto> searchContent(MemberSearchCondition condition, Pageable pageable) {
+        return selectFromMemberTeam(memberTeamDto, hasText(condition.getTeamName()))
+                .where(MemberPredicates.JPA.toPredicate(condition))
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
                 .fetch();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long searchCount(MemberSearchCondition condition) {
+        if (countFromSnapshot(condition)) {
+            return snapshotEngine.count(condition);
+        }
+        return countCache.get(condition, () -> countQuery(condition).fetchOne());
+    }
+
+    // member snapshot 은 커밋된 데이터만 가지므로, 쓰기 트랜잭션 안에서는(아직 커밋되지 않은 변경이 있을 수 있음) DB 로 센다.
+    private boolean countFromSnapshot(MemberSearchCondition condition) {
+        return snapshotEngine.supports(condition)
+                && (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    private JPAQuery<Long> countQuery(MemberSearchCondition condition) {
+        JPAQuery<Long> query = queryFactory
+                .select(member.count())
+                .from(member);
+
+        // team 조건이 없으면 left join 은 row 수에 영향을 주지 않으므로 생략한다.
+        if (hasText(condition.getTeamName())) {
+            query.join(member.team, team);
+        }
 
-        long total = queryFactory
-                .select(member)
+        return query.where(MemberPredicates.JPA.toPredicate(condition));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<MemberTeamDto> searchSlice(MemberSearchCondition condition, String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be positive: " + size);
+        }
+        int pageSize = Math.min(size, MAX_SLICE_SIZE);
+        Long lastMemberId = MemberCursor.decode(cursor);
+
+        // offset 대신 member.id 기준 seek. pageSize + 1 개를 읽어서 다음 페이지 존재 여부를 판단한다.
+        List<MemberTeamDto> content = selectFromMemberTeam(memberTeamDto, hasText(condition.getTeamName()))
+                .where(memberIdGt(lastMemberId), MemberPredicates.JPA.toPredicate(condition))
+                .orderBy(member.id.asc())
+                .limit(pageSize + 1)
+                .fetch();
+
+        String nextCursor = null;
+        if (content.size() > pageSize) {
+            content = content.subList(0, pageSize);
+            nextCursor = MemberCursor.encode(content.get(pageSize - 1).getMemberId());
+        }
+
+        return new CursorSlice<>(content, pageSize, nextCursor);
+    }
+
+    @Override
+    public Stream<MemberTeamDto> streamSearch(MemberSearchCondition condition, int fetchSize) {
+        // 결과를 List 로 모으지 않고 JDBC fetch size 단위로 읽는다. 호출하는 쪽에서 트랜잭션 안에서 close 해야 한다.
+        return selectFromMemberTeam(memberTeamDto, hasText(condition.getTeamName()))
+                .where(MemberPredicates.JPA.toPredicate(condition))
+                .orderBy(member.id.asc())
+                .setHint(QueryHints.FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.READ_ONLY, true)
+                .stream();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MemberTeamDto> findMemberTeams(MemberSearchCondition condition, MemberReadMode readMode) {
+        switch (readMode) {
+            case ENTITY:
+                return toMemberTeamDtos(findMember(condition, MemberFetchPlan.FETCH_JOIN));
+            case READ_ONLY:
+                return toMemberTeamDtos(readOnly(selectFromMemberTeam(member, hasText(condition.getTeamName())).fetchJoin())
+                        .where(MemberPredicates.JPA.toPredicate(condition))
+                        .fetch());
+            case PROJECTION:
+                return readOnly(selectFromMemberTeam(memberTeamDto, hasText(condition.getTeamName())))
+                        .where(MemberPredicates.JPA.toPredicate(condition))
+                        .fetch();
+            case STATELESS:
+                List<MemberTeamDto> content = new ArrayList<>();
+                scanMembers(condition, STATELESS_FETCH_SIZE, content::add);
+                return content;
+            default:
+                throw new IllegalArgumentException("지원하지 않는 read mode 입니다: " + readMode);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long scanMembers(MemberSearchCondition condition, int fetchSize, Consumer<MemberTeamDto> action) {
+        return scanMembers(condition, Range.unbounded(), fetchSize, action);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long scanMembers(MemberSearchCondition condition, Range<Long> memberIdRange, int fetchSize,
+                            Consumer<MemberTeamDto> action) {
+        // 현재 트랜잭션의 커넥션으로 StatelessSession 을 연다. 1차 캐시가 없어서 건수가 늘어도 힙 사용량이 일정하다.
+        Session session = em.unwrap(Session.class);
+        return session.doReturningWork(connection -> {
+            try (StatelessSession statelessSession = session.getSessionFactory().openStatelessSession(connection)) {
+                HibernateQuery<MemberTeamDto> query = new HibernateQuery<Void>(statelessSession)
+                        .select(memberTeamDto)
+                        .from(member);
+                if (hasText(condition.getTeamName())) {
+                    query.join(member.team, team);
+                } else {
+                    query.leftJoin(member.team, team);
+                }
+
+                query.where(memberIdIn(memberIdRange), MemberPredicates.JPA.toPredicate(condition))
+                        .orderBy(member.id.asc())
+                        .setFetchSize(fetchSize)
+                        .setReadOnly(true);
+                // StatelessSession 쿼리는 MeteredJPAQuery 가 아니므로 끝까지 읽는 시간을 여기서 기록한다.
+                return queryMetrics.recordQuery(query::toString, null, () -> {
+                    long count = 0;
+                    try (CloseableIterator<MemberTeamDto> rows = query.iterate()) {
+                        while (rows.hasNext()) {
+                            action.accept(rows.next());
+                            count++;
+                        }
+                    }
+                    return count;
+                });
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Range<Long>> findMemberIdRange(MemberSearchCondition condition) {
+        Tuple idRange = queryFactory
+                .select(member.id.min(), member.id.max())
                 .from(member)
-                .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
-                .fetchCount();
-
-        return new PageImpl<>(content, pageable, total);
+                .where(MemberPredicates.JPA_BULK.toPredicate(condition))
+                .fetchOne();
+
+        Long minId = idRange == null ? null : idRange.get(member.id.min());
+        Long maxId = idRange == null ? null : idRange.get(member.id.max());
+        return minId == null || maxId == null ? Optional.empty() : Optional.of(Range.closed(minId, maxId));
+    }
+
+    private static BooleanExpression memberIdIn(Range<Long> range) {
+        Range.Bound<Long> lower = range.getLowerBound();
+        Range.Bound<Long> upper = range.getUpperBound();
+        BooleanExpression from = lower.getValue()
+                .map(id -> lower.isInclusive() ? member.id.goe(id) : member.id.gt(id))
+                .orElse(null);
+        BooleanExpression to = upper.getValue()
+                .map(id -> upper.isInclusive() ? member.id.loe(id) : member.id.lt(id))
+                .orElse(null);
+        return from == null ? to : from.and(to);
+    }
+
+    private static <T> JPAQuery<T> readOnly(JPAQuery<T> query) {
+        // 스냅샷을 만들지 않고, 조회 전에 영속성 컨텍스트를 flush 하지 않는다.
+        // 대량 조회 결과로 2차 캐시를 채우지 않도록 캐시는 읽기만 한다.
+        return query
+                .setHint(QueryHints.READ_ONLY, true)
+                .setHint(QueryHints.FLUSH_MODE, FlushMode.MANUAL)
+                .setHint(QueryHints.CACHE_MODE, CacheMode.GET);
+    }
+
+    private static List<MemberTeamDto> toMemberTeamDtos(List<Member> members) {
+        List<MemberTeamDto> content = new ArrayList<>(members.size());
+        for (Member m : members) {
+            Team t = m.getTeam();
+            content.add(new MemberTeamDto(m.getId(), m.getUsername(), m.getAge(),
+                    t == null ? null : t.getId(), t == null ? null : t.getName()));
+        }
+        return content;
+    }
+
+    @Override
+    @Transactional
+    public int saveAllBatched(Iterable<Member> members, int batchSize) {
+        return BatchWriter.saveAll(em, members, batchSize);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.MEMBER_SEARCH, allEntries = true)
+    public long bulkAddAge(MemberSearchCondition condition, int delta) {
+        return executeInChunks(condition, null, range -> queryFactory
+                .update(member)
+                .set(member.age, member.age.add(delta))
+                .where(MemberPredicates.JPA_BULK.toPredicate(condition))
+                .where(range)
+                .execute());
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.MEMBER_SEARCH, allEntries = true)
+    public long bulkChangeTeam(MemberSearchCondition condition, Long teamId) {
+        Team target = teamId == null ? null : em.getReference(Team.class, teamId);
+        return executeInChunks(condition, teamId, range -> queryFactory
+                .update(member)
+                .set(member.team, target)
+                .where(MemberPredicates.JPA_BULK.toPredicate(condition))
+                .where(range)
+                .execute());
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.MEMBER_SEARCH, allEntries = true)
+    public long bulkDelete(MemberSearchCondition condition) {
+        long deleted = executeInChunks(condition, null, range -> queryFactory
+                .delete(member)
+                .where(MemberPredicates.JPA_BULK.toPredicate(condition))
+                .where(range)
+                .execute());
+        // 지운 member 가 prefix 검색 결과 수를 차지하지 않도록 username 인덱스도 다시 읽는다.
+        if (deleted > 0) {
+            usernameIndex.reloadAfterCommit();
+        }
+        return deleted;
+    }
+
+    /**
+     * 조건에 맞는 member 를 member.id 순으로 bulkChunkSize 건씩(keyset) 나누어 실행한다. id 가 듬성듬성해도 빈 chunk 가 생기지 않는다.
+     * 호출하는 쪽에 트랜잭션이 없으면 chunk 마다 별도 트랜잭션으로 커밋해서 lock 을 오래 잡지 않는다.
+     * 이 경우 원자적이지 않으므로 중간에 실패하면 앞의 chunk 만 반영된 채로 예외가 전파된다.
+     * 호출하는 쪽 트랜잭션 안에서 실행하면 전체가 그 트랜잭션으로 커밋/롤백된다.
+     * bulk 연산은 영속성 컨텍스트를 거치지 않으므로 실행 전에 flush 하고, 실행 뒤에는 호출하는 쪽 영속성 컨텍스트의 member 만 detach 한다.
+     * Hibernate 이벤트도 발생하지 않으므로 chunk 마다 대상 member 가 속한 team(과 targetTeamId)의 통계를 같은 트랜잭션에서 다시 집계한다.
+     */
+    private long executeInChunks(MemberSearchCondition condition, Long targetTeamId,
+                                 Function<Predicate, Long> bulkOperation) {
+        boolean callerTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        Predicate matches = MemberPredicates.JPA_BULK.toPredicate(condition);
+
+        long affected = 0;
+        Long lastId = null;
+        while (true) {
+            Long fromExclusive = lastId;
+            // 이번 chunk 의 마지막 id. 남은 대상이 bulkChunkSize 보다 적으면 null 이고 나머지 전체가 마지막 chunk 이다.
+            Long toInclusive = transactionTemplate.execute(status -> queryFactory
+                    .select(member.id)
+                    .from(member)
+                    .where(memberIdGt(fromExclusive), matches)
+                    .orderBy(member.id.asc())
+                    .offset(bulkChunkSize - 1)
+                    .fetchFirst());
+
+            Predicate range = ExpressionUtils.allOf(memberIdGt(fromExclusive),
+                    toInclusive == null ? null : member.id.loe(toInclusive));
+            Long chunk = transactionTemplate.execute(status -> {
+                em.flush();
+                Set<Long> touchedTeamIds = new HashSet<>(queryFactory
+                        .select(member.team.id).distinct()
+                        .from(member)
+                        .where(range, matches)
+                        .fetch());
+                long count = bulkOperation.apply(range);
+                if (count > 0) {
+                    touchedTeamIds.add(targetTeamId);
+                    touchedTeamIds.remove(null);
+                    em.unwrap(Session.class).doWork(connection -> {
+                        for (Long teamId : touchedTeamIds) {
+                            TeamStatsStatements.recomputeTeam(connection, teamId);
+                        }
+                    });
+                }
+                if (callerTransaction) {
+                    detachMembers();
+                }
+                return count;
+            });
+            affected += chunk == null ? 0 : chunk;
+            if (toInclusive == null) {
+                break;
+            }
+            lastId = toInclusive;
+        }
+        if (affected == 0) {
+            return 0;
+        }
+
+        // bulk 연산은 Hibernate 이벤트를 거치지 않으므로 member snapshot 을 다시 적재한다.
+        countCache.invalidateAll();
+        snapshotEngine.reloadAfterCommit();
+        tableVersions.bumpAfterCommit(TableVersions.MEMBER);
+        return affected;
+    }
+
+    // bulk 연산으로 DB 와 달라진 member 만 영속성 컨텍스트에서 뺀다. (clear 하면 호출하는 쪽의 다른 엔티티까지 detach 된다)
+    private void detachMembers() {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        for (Map.Entry<Object, EntityEntry> entry : session.getPersistenceContextInternal().reentrantSafeEntityEntries()) {
+            if (entry.getKey() instanceof Member) {
+                session.evict(entry.getKey());
+            }
+        }
     }
 
 }
@@ -0,0 +1,106 @@
+package com.querydsl.repository;
+
+import com.querydsl.config.CacheConfiguration;
+import com.querydsl.entity.Member;
+import com.querydsl.entity.Team;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * member / team 의 insert, update, delete 가 커밋되면 검색 결과 캐시(memberSearch)를 비운다. 롤백되면 비우지 않는다.
+ * repository 메서드(save, saveAndFlush, deleteAllInBatch 등)뿐 아니라 dirty checking 으로 바뀐 엔티티도 포함한다.
+ * 이벤트가 없는 bulk 연산(bulkAddAge 등, deleteAllInBatch 등)은 해당 메서드의 @CacheEvict 로 비운다.
+ */
+public class MemberSearchCacheEvictListener implements Integrator, PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+
+    // CacheManager 는 EntityManagerFactory 보다 늦게 만들어질 수 있으므로 필요할 때 꺼낸다.
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final Map<EventSource, Boolean> pending = new ConcurrentHashMap<>();
+
+    public MemberSearchCacheEvictListener(ObjectProvider<CacheManager> cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // PostActionEventListener 가 아직 abstract 로 선언하고 있어서 구현은 남겨 둔다. Hibernate 는 requiresPostCommitHandling 을 호출한다.
+    @Override
+    @Deprecated
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    private void changed(EventSource session, Object entity) {
+        if (!(entity instanceof Member) && !(entity instanceof Team)) {
+            return;
+        }
+        pending.computeIfAbsent(session, key -> {
+            key.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, s) -> {
+                pending.remove(key);
+                if (success) {
+                    evict();
+                }
+            });
+            return Boolean.TRUE;
+        });
+    }
+
+    private void evict() {
+        CacheManager manager = cacheManager.getIfAvailable();
+        Cache cache = manager == null ? null : manager.getCache(CacheConfiguration.MEMBER_SEARCH);
+        if (cache != null) {
+            cache.invalidate();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.querydsl.repository;
+
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.JPQLTemplates;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * MemberSearchCondition 의 조건 조합(shape) 별로 직렬화된 JPQL 을 캐시한다.
+ * 조건 값은 Param 으로 남겨두고, 호출마다 파라미터만 바인딩한다.
+ */
+@Component
+public class MemberSearchQueryCache {
+
+    public static final int USERNAME = 1;
+    public static final int TEAM_NAME = 1 << 1;
+    public static final int AGE_GOE = 1 << 2;
+    public static final int AGE_LOE = 1 << 3;
+
+    private static final int SHAPES = 1 << 4;
+
+    private final AtomicReferenceArray<CachedQuery> queries = new AtomicReferenceArray<>(SHAPES);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    CachedQuery get(int shape, JPQLTemplates templates, IntFunction<JPQLQuery<?>> queryBuilder) {
+        CachedQuery cached = queries.get(shape);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        JPQLQuery<?> query = queryBuilder.apply(shape);
+        JPQLSerializer serializer = new JPQLSerializer(templates);
+        serializer.serialize(query.getMetadata(), false, null);
+
+        CachedQuery built = new CachedQuery(
+                serializer.toString(),
+                List.copyOf(serializer.getConstants()),
+                (FactoryExpression<?>) query.getMetadata().getProjection());
+        // 동시에 같은 shape 를 만들었다면 먼저 저장된 것을 사용한다.
+        return queries.compareAndSet(shape, null, built) ? built : queries.get(shape);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < SHAPES; i++) {
+            if (queries.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    static final class CachedQuery {
+
+        private final String jpql;
+        private final List<Object> constants;
+        private final FactoryExpression<?> projection;
+
+        private CachedQuery(String jpql, List<Object> constants, FactoryExpression<?> projection) {
+            this.jpql = jpql;
+            this.constants = constants;
+            this.projection = projection;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> List<T> fetch(EntityManager em, Map<Param<?>, Object> params) {
+            Query query = em.createQuery(jpql);
+            for (int i = 0; i < constants.size(); i++) {
+                Object constant = constants.get(i);
+                query.setParameter(i + 1, constant instanceof Param ? params.get(constant) : constant);
+            }
+
+            List<?> rows = query.getResultList();
+            List<T> results = new ArrayList<>(rows.size());
+            for (Object row : rows) {
+                results.add((T) projection.newInstance((Object[]) row));
+            }
+            return results;
+        }
+
+        String getJpql() {
+            return jpql;
+        }
+    }
+}
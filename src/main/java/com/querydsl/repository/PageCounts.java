@@ -0,0 +1,25 @@
+package com.querydsl.repository;
+
+import org.springframework.data.domain.Pageable;
+
+/**
+ * count 쿼리를 따로 실행하는 경우(비동기, reactive)에 PageableExecutionUtils.getPage 와 같은 기준으로 count 가 필요한지 판단한다.
+ */
+public final class PageCounts {
+
+    private PageCounts() {
+    }
+
+    /**
+     * false 이면 total 은 offset + contentSize 이다.
+     */
+    public static boolean isRequired(int contentSize, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return false;
+        }
+        if (pageable.getOffset() == 0) {
+            return contentSize >= pageable.getPageSize();
+        }
+        return contentSize == 0 || contentSize >= pageable.getPageSize();
+    }
+}
@@ -0,0 +1,141 @@
+package com.querydsl.repository;
+
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.repository.sql.SMember;
+import com.querydsl.repository.sql.STeam;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.SQLBindings;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLTemplates;
+import io.r2dbc.spi.Row;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * MemberRepositoryCustomImpl 의 검색을 R2DBC 로 실행한다. 쿼리는 Querydsl SQL 로 만들고 SQL 과 바인딩 값만 꺼내서
+ * DatabaseClient 로 실행하므로 JDBC 커넥션을 사용하지 않는다. 결과는 row 단위로 흘려보낸다(backpressure 는 driver 가 처리).
+ */
+@Repository
+public class ReactiveMemberRepository {
+
+    private final DatabaseClient client;
+    private final Configuration configuration;
+
+    private static final SMember member = SMember.member;
+    private static final STeam team = STeam.team;
+
+    public ReactiveMemberRepository(DatabaseClient client, SQLTemplates templates) {
+        this.client = client;
+        this.configuration = new Configuration(templates);
+    }
+
+    public Flux<MemberTeamDto> search(MemberSearchCondition condition) {
+        return fetch(selectFromMemberTeam(condition));
+    }
+
+    public Mono<Page<MemberTeamDto>> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
+        Mono<List<MemberTeamDto>> content = fetch(selectFromMemberTeam(condition)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize()))
+                .collectList();
+
+        // content 와 count 를 동시에 구독한다.
+        return Mono.zip(content, count(condition))
+                .map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+    }
+
+    public Mono<Page<MemberTeamDto>> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
+        return fetch(selectFromMemberTeam(condition)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize()))
+                .collectList()
+                .flatMap(content -> PageCounts.isRequired(content.size(), pageable)
+                        ? count(condition).map(total -> new PageImpl<>(content, pageable, total))
+                        : Mono.just(new PageImpl<>(content, pageable, pageable.getOffset() + content.size())));
+    }
+
+    public Mono<Long> count(MemberSearchCondition condition) {
+        SQLQuery<Long> query = new SQLQuery<Void>(configuration)
+                .select(member.memberId.count())
+                .from(member);
+
+        // team 조건이 없으면 join 을 생략한다.
+        if (hasText(condition.getTeamName())) {
+            query.join(team).on(member.teamId.eq(team.teamId));
+        }
+
+        return sql(query.where(MemberPredicates.SQL.toPredicate(condition)))
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    // team 이름 조건이 있으면 inner join (MemberRepositoryCustomImpl.selectFromMemberTeam 과 같은 이유)
+    private SQLQuery<?> selectFromMemberTeam(MemberSearchCondition condition) {
+        SQLQuery<?> query = new SQLQuery<Void>(configuration)
+                .select(member.memberId, member.username, member.age, team.teamId, team.name)
+                .from(member);
+
+        if (!hasText(condition.getTeamName())) {
+            query.leftJoin(team).on(member.teamId.eq(team.teamId));
+        } else {
+            query.join(team).on(member.teamId.eq(team.teamId));
+        }
+
+        return query
+                .where(MemberPredicates.SQL.toPredicate(condition))
+                .orderBy(member.memberId.asc());
+    }
+
+    private Flux<MemberTeamDto> fetch(SQLQuery<?> query) {
+        return sql(query).map(ReactiveMemberRepository::toDto).all();
+    }
+
+    private static MemberTeamDto toDto(Row row) {
+        Integer age = row.get(2, Integer.class);
+        return new MemberTeamDto(
+                row.get(0, Long.class),
+                row.get(1, String.class),
+                age == null ? 0 : age,
+                row.get(3, Long.class),
+                row.get(4, String.class));
+    }
+
+    /**
+     * Querydsl SQL 의 ? 를 이름 있는 파라미터(:p0, :p1 ...)로 바꿔서 DatabaseClient 가 DB 별 bind marker 로 변환하게 한다.
+     */
+    private DatabaseClient.GenericExecuteSpec sql(SQLQuery<?> query) {
+        SQLBindings bindings = query.getSQL();
+        String source = bindings.getSQL();
+        StringBuilder sql = new StringBuilder(source.length() + 16);
+        int index = 0;
+        boolean quoted = false;
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c == '?' && !quoted) {
+                sql.append(":p").append(index++);
+            } else {
+                sql.append(c);
+            }
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql.toString());
+        List<Object> values = bindings.getNullFriendlyBindings();
+        for (int i = 0; i < values.size(); i++) {
+            spec = spec.bind("p" + i, values.get(i));
+        }
+        return spec;
+    }
+}
@@ -0,0 +1,62 @@
+package com.querydsl.repository;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 테이블별 버전. 커밋된 쓰기가 있을 때마다 1씩 늘어나므로 버전이 같으면 그 테이블의 데이터도 같다. (HTTP ETag 용)
+ * 엔티티 쓰기는 TableVersionEventListener 가 커밋 뒤에 올리고, 이벤트가 없는 bulk 연산은 bumpAfterCommit 으로 올린다.
+ * 재시작 전에 발급한 버전과 겹치지 않도록 시작 시각(ms)에서 시작한다. 버전은 프로세스마다 따로 센다.
+ */
+@Component
+public class TableVersions {
+
+    public static final String MEMBER = "member";
+    public static final String TEAM = "team";
+
+    private final long initialVersion = System.currentTimeMillis();
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public long version(String table) {
+        return counter(table).get();
+    }
+
+    public void bump(Collection<String> tables) {
+        for (String table : tables) {
+            counter(table).incrementAndGet();
+        }
+    }
+
+    /**
+     * 이벤트 없이 테이블을 바꾼 뒤(bulk 연산) 호출한다. 트랜잭션이 있으면 끝난 뒤에, 없으면 바로 올린다.
+     */
+    public void bumpAfterCommit(String... tables) {
+        List<String> changed = List.of(tables);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    bump(changed);
+                }
+            });
+        } else {
+            bump(changed);
+        }
+    }
+
+    private AtomicLong counter(String table) {
+        return versions.computeIfAbsent(normalize(table), key -> new AtomicLong(initialVersion));
+    }
+
+    private static String normalize(String table) {
+        return table.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,8 +1,23 @@
 package com.querydsl.repository;
 
+import com.querydsl.config.CacheConfiguration;
 import com.querydsl.entity.Team;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface TeamRepository extends JpaRepository<Team, Long> {
+// team 이름이 바뀌면 teamName 조건 검색 결과도 달라진다. 검색 결과 캐시는 MemberSearchCacheEvictListener 가 비운다.
+public interface TeamRepository extends JpaRepository<Team, Long>, TeamRepositoryCustom {
 
+    // JPQL bulk delete 로 실행되어 엔티티 이벤트가 없으므로 직접 비운다.
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.MEMBER_SEARCH, allEntries = true)
+    void deleteAllInBatch();
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.MEMBER_SEARCH, allEntries = true)
+    void deleteAllInBatch(Iterable<Team> entities);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.MEMBER_SEARCH, allEntries = true)
+    void deleteAllByIdInBatch(Iterable<Long> ids);
 }
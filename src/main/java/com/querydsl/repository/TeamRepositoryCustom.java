@@ -0,0 +1,10 @@
+package com.querydsl.repository;
+
+import com.querydsl.entity.Team;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface TeamRepositoryCustom {
+    int saveAllBatched(Iterable<Team> teams, int batchSize);
+    Page<Team> findTeamsWithMembers(Pageable pageable);
+}
@@ -0,0 +1,58 @@
+package com.querydsl.repository;
+
+import com.querydsl.entity.QMember;
+import com.querydsl.entity.QTeam;
+import com.querydsl.entity.Team;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+public class TeamRepositoryCustomImpl implements TeamRepositoryCustom {
+
+    private static final QTeam team = QTeam.team;
+    private static final QMember member = QMember.member;
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+
+    public TeamRepositoryCustomImpl(EntityManager em, JPAQueryFactory queryFactory) {
+        this.em = em;
+        this.queryFactory = queryFactory;
+    }
+
+    @Override
+    @Transactional
+    public int saveAllBatched(Iterable<Team> teams, int batchSize) {
+        return BatchWriter.saveAll(em, teams, batchSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Team> findTeamsWithMembers(Pageable pageable) {
+        // 컬렉션 fetch join 에 offset/limit 을 걸면 Hibernate 가 메모리에서 페이징한다(HHH000104).
+        // team id 만 먼저 페이징한 뒤, 해당 team 들만 members 와 fetch join 한다.
+        List<Long> teamIds = queryFactory
+                .select(team.id)
+                .from(team)
+                .orderBy(team.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        List<Team> content = teamIds.isEmpty() ? List.of() : queryFactory
+                .selectFrom(team)
+                .distinct()
+                .leftJoin(team.members, member).fetchJoin()
+                .where(team.id.in(teamIds))
+                .orderBy(team.id.asc())
+                .fetch();
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> queryFactory.select(team.count()).from(team).fetchOne());
+    }
+}
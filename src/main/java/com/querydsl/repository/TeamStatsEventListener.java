@@ -0,0 +1,223 @@
+package com.querydsl.repository;
+
+import com.querydsl.dto.AgeBucket;
+import com.querydsl.entity.Member;
+import com.querydsl.entity.Team;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * member / team 의 insert, update, delete 를 team_stats 에 반영하는 Hibernate 이벤트 리스너.
+ * flush 중에 생긴 변경을 team 별 증감으로 모았다가, flush 가 끝나면 같은 커넥션(같은 트랜잭션)으로 반영한다.
+ * JPQL bulk 연산은 이벤트가 발생하지 않으므로 호출하는 쪽에서 대상 team 을 다시 집계해야 한다.
+ */
+public class TeamStatsEventListener implements Integrator, PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener, FlushEventListener, AutoFlushEventListener {
+
+    private final Map<EventSource, Changes> pending = new ConcurrentHashMap<>();
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        // 기본 flush 리스너 뒤에 실행되도록 append 한다.
+        registry.appendListeners(EventType.FLUSH, this);
+        registry.appendListeners(EventType.AUTO_FLUSH, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Member) {
+            Member member = (Member) entity;
+            changes(event.getSession()).add(teamId(member.getTeam()), member.getAge(), 1);
+        } else if (entity instanceof Team) {
+            changes(event.getSession()).recompute(((Team) entity).getId());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member)) {
+            return;
+        }
+
+        Changes changes = changes(event.getSession());
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            // 이전 상태가 없으면(detached update) 어느 team 에서 빠졌는지 알 수 없다.
+            changes.rebuildAll();
+            return;
+        }
+
+        EntityPersister persister = event.getPersister();
+        int teamIndex = persister.getEntityMetamodel().getPropertyIndex("team");
+        int ageIndex = persister.getEntityMetamodel().getPropertyIndex("age");
+        Object[] state = event.getState();
+
+        Long oldTeamId = teamId(oldState[teamIndex]);
+        Long newTeamId = teamId(state[teamIndex]);
+        int oldAge = (Integer) oldState[ageIndex];
+        int newAge = (Integer) state[ageIndex];
+        if (Objects.equals(oldTeamId, newTeamId) && oldAge == newAge) {
+            return;
+        }
+
+        changes.add(oldTeamId, oldAge, -1);
+        changes.add(newTeamId, newAge, 1);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Member) {
+            EntityPersister persister = event.getPersister();
+            Object[] state = event.getDeletedState();
+            Long teamId = teamId(state[persister.getEntityMetamodel().getPropertyIndex("team")]);
+            int age = (Integer) state[persister.getEntityMetamodel().getPropertyIndex("age")];
+            changes(event.getSession()).add(teamId, age, -1);
+        } else if (entity instanceof Team) {
+            changes(event.getSession()).delete(((Team) entity).getId());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // PostActionEventListener 가 아직 abstract 로 선언하고 있어서 구현은 남겨 둔다. Hibernate 는 requiresPostCommitHandling 을 호출한다.
+    @Override
+    @Deprecated
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    @Override
+    public void onFlush(FlushEvent event) {
+        apply(event.getSession());
+    }
+
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        apply(event.getSession());
+    }
+
+    private void apply(EventSource session) {
+        Changes changes = pending.remove(session);
+        if (changes != null) {
+            session.doWork(changes::applyTo);
+        }
+    }
+
+    private Changes changes(EventSource session) {
+        return pending.computeIfAbsent(session, key -> {
+            // flush 도중 예외로 반영하지 못한 변경은 트랜잭션이 끝날 때 버린다.
+            key.getActionQueue().registerProcess(
+                    (AfterTransactionCompletionProcess) (success, s) -> pending.remove(key));
+            return new Changes();
+        });
+    }
+
+    private static Long teamId(Object team) {
+        // 초기화되지 않은 프록시도 getId() 는 DB 를 조회하지 않는다.
+        return team == null ? null : ((Team) team).getId();
+    }
+
+    /**
+     * 한 번의 flush 동안 모인 team 별 변경.
+     */
+    private static class Changes {
+
+        // member 수, 나이 합, AgeBucket 별 member 수
+        private final Map<Long, long[]> deltas = new HashMap<>();
+        private final Set<Long> recomputed = new HashSet<>();
+        private final Set<Long> deleted = new HashSet<>();
+        private boolean rebuildAll;
+
+        void add(Long teamId, int age, int sign) {
+            if (teamId == null) {
+                return;
+            }
+            long[] delta = deltas.computeIfAbsent(teamId, id -> new long[2 + AgeBucket.values().length]);
+            delta[0] += sign;
+            delta[1] += (long) sign * age;
+            delta[2 + AgeBucket.of(age).ordinal()] += sign;
+        }
+
+        void recompute(Long teamId) {
+            recomputed.add(teamId);
+        }
+
+        void delete(Long teamId) {
+            deleted.add(teamId);
+        }
+
+        void rebuildAll() {
+            rebuildAll = true;
+        }
+
+        void applyTo(Connection connection) throws SQLException {
+            if (rebuildAll) {
+                TeamStatsStatements.rebuild(connection);
+                return;
+            }
+            for (Long teamId : deleted) {
+                TeamStatsStatements.deleteTeam(connection, teamId);
+            }
+            for (Long teamId : recomputed) {
+                if (!deleted.contains(teamId)) {
+                    TeamStatsStatements.recomputeTeam(connection, teamId);
+                }
+            }
+            for (Map.Entry<Long, long[]> entry : deltas.entrySet()) {
+                Long teamId = entry.getKey();
+                if (!deleted.contains(teamId) && !recomputed.contains(teamId) && !isZero(entry.getValue())) {
+                    TeamStatsStatements.applyDelta(connection, teamId, entry.getValue());
+                }
+            }
+        }
+
+        private static boolean isZero(long[] delta) {
+            for (long value : delta) {
+                if (value != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
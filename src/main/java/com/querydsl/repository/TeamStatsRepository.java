@@ -0,0 +1,14 @@
+package com.querydsl.repository;
+
+import com.querydsl.entity.TeamStats;
+import org.springframework.data.repository.Repository;
+
+import java.util.Optional;
+
+/**
+ * team_stats 는 TeamStatsEventListener 와 rebuildTeamStats() 로만 갱신하므로 조회 메서드만 둔다.
+ */
+public interface TeamStatsRepository extends Repository<TeamStats, Long>, TeamStatsRepositoryCustom {
+
+    Optional<TeamStats> findById(Long teamId);
+}
@@ -0,0 +1,11 @@
+package com.querydsl.repository;
+
+import com.querydsl.dto.TeamStatsDto;
+
+import java.util.List;
+
+public interface TeamStatsRepositoryCustom {
+    List<TeamStatsDto> findTeamStats();
+    List<TeamStatsDto> aggregateTeamStats();
+    int rebuildTeamStats();
+}
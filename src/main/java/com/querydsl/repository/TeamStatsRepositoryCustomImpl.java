@@ -0,0 +1,112 @@
+package com.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.dto.AgeBucket;
+import com.querydsl.dto.QTeamStatsDto;
+import com.querydsl.dto.TeamStatsDto;
+import com.querydsl.entity.QMember;
+import com.querydsl.entity.QTeam;
+import com.querydsl.entity.QTeamStats;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class TeamStatsRepositoryCustomImpl implements TeamStatsRepositoryCustom {
+
+    private static final QTeamStats teamStats = QTeamStats.teamStats;
+    private static final QTeam team = QTeam.team;
+    private static final QMember member = QMember.member;
+
+    private static final QTeamStatsDto teamStatsDto = new QTeamStatsDto(
+            teamStats.teamId,
+            team.name,
+            teamStats.memberCount,
+            teamStats.ageSum,
+            teamStats.minAge,
+            teamStats.maxAge,
+            teamStats.age0To11,
+            teamStats.age12To20,
+            teamStats.ageOther
+    );
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+
+    public TeamStatsRepositoryCustomImpl(EntityManager em, JPAQueryFactory queryFactory) {
+        this.em = em;
+        this.queryFactory = queryFactory;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TeamStatsDto> findTeamStats() {
+        // 요약 테이블만 읽으므로 O(#teams)
+        return queryFactory
+                .select(teamStatsDto)
+                .from(teamStats)
+                .join(team).on(team.id.eq(teamStats.teamId))
+                .orderBy(team.name.asc(), team.id.asc())
+                .fetch();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TeamStatsDto> aggregateTeamStats() {
+        // 요약 테이블 없이 member 전체를 group by 한다. O(#members)
+        NumberExpression<Long> memberCount = member.id.count();
+        NumberExpression<Long> ageSum = Expressions.numberTemplate(Long.class, "sum({0})", member.age);
+        NumberExpression<Long> age0To11 = bucketCount(AgeBucket.AGE_0_11);
+        NumberExpression<Long> age12To20 = bucketCount(AgeBucket.AGE_12_20);
+        NumberExpression<Long> ageOther = new CaseBuilder()
+                .when(member.age.lt(AgeBucket.AGE_0_11.getFrom()).or(member.age.gt(AgeBucket.AGE_12_20.getTo()))).then(1L)
+                .otherwise(0L)
+                .sum();
+
+        List<Tuple> rows = queryFactory
+                .select(team.id, team.name, memberCount, ageSum, member.age.min(), member.age.max(),
+                        age0To11, age12To20, ageOther)
+                .from(team)
+                .leftJoin(team.members, member)
+                .groupBy(team.id, team.name)
+                .orderBy(team.name.asc(), team.id.asc())
+                .fetch();
+
+        return rows.stream()
+                .map(row -> new TeamStatsDto(
+                        row.get(team.id),
+                        row.get(team.name),
+                        row.get(memberCount),
+                        orZero(row.get(ageSum)),
+                        row.get(member.age.min()),
+                        row.get(member.age.max()),
+                        orZero(row.get(age0To11)),
+                        orZero(row.get(age12To20)),
+                        orZero(row.get(ageOther))))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public int rebuildTeamStats() {
+        em.flush();
+        return em.unwrap(Session.class).doReturningWork(TeamStatsStatements::rebuild);
+    }
+
+    private static NumberExpression<Long> bucketCount(AgeBucket bucket) {
+        return new CaseBuilder()
+                .when(member.age.between(bucket.getFrom(), bucket.getTo())).then(1L)
+                .otherwise(0L)
+                .sum();
+    }
+
+    private static long orZero(Long value) {
+        return value == null ? 0 : value;
+    }
+}
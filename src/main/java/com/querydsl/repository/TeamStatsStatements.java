@@ -0,0 +1,90 @@
+package com.querydsl.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * team_stats 를 갱신하는 SQL. 집계 컬럼 순서는 AgeBucket 순서를 따른다.
+ * 증감 반영은 O(변경된 team 수) 이고, min / max 는 (team_id, age) 인덱스로 다시 구한다.
+ */
+final class TeamStatsStatements {
+
+    private static final String COLUMNS =
+            "team_id, member_count, age_sum, min_age, max_age, age_0_11, age_12_20, age_other";
+
+    private static final String AGGREGATES = "count(m.member_id), coalesce(sum(m.age), 0), min(m.age), max(m.age), "
+            + "coalesce(sum(case when m.age between 0 and 11 then 1 else 0 end), 0), "
+            + "coalesce(sum(case when m.age between 12 and 20 then 1 else 0 end), 0), "
+            + "coalesce(sum(case when m.age < 0 or m.age > 20 then 1 else 0 end), 0)";
+
+    private static final String APPLY_DELTA = "update team_stats set"
+            + " member_count = member_count + ?, age_sum = age_sum + ?,"
+            + " age_0_11 = age_0_11 + ?, age_12_20 = age_12_20 + ?, age_other = age_other + ?,"
+            + " min_age = (select min(m.age) from member m where m.team_id = ?),"
+            + " max_age = (select max(m.age) from member m where m.team_id = ?)"
+            + " where team_id = ?";
+
+    // 다른 트랜잭션이 먼저 행을 만들었어도 duplicate key 로 실패하지 않도록 upsert 한다.
+    private static final String UPSERT_TEAM = "insert into team_stats (" + COLUMNS + ")"
+            + " select ?, " + AGGREGATES + " from member m where m.team_id = ?"
+            + " on duplicate key update member_count = values(member_count), age_sum = values(age_sum),"
+            + " min_age = values(min_age), max_age = values(max_age), age_0_11 = values(age_0_11),"
+            + " age_12_20 = values(age_12_20), age_other = values(age_other)";
+
+    private static final String DELETE_TEAM = "delete from team_stats where team_id = ?";
+
+    private static final String INSERT_ALL = "insert into team_stats (" + COLUMNS + ")"
+            + " select t.team_id, " + AGGREGATES
+            + " from team t left join member m on m.team_id = t.team_id group by t.team_id";
+
+    private TeamStatsStatements() {
+    }
+
+    /**
+     * delta 는 member 수, 나이 합, AgeBucket 별 member 수 순서. 통계 행이 없으면 member 테이블에서 새로 집계한다.
+     */
+    static void applyDelta(Connection connection, Long teamId, long[] delta) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(APPLY_DELTA)) {
+            for (int i = 0; i < delta.length; i++) {
+                statement.setLong(i + 1, delta[i]);
+            }
+            statement.setLong(delta.length + 1, teamId);
+            statement.setLong(delta.length + 2, teamId);
+            statement.setLong(delta.length + 3, teamId);
+            if (statement.executeUpdate() > 0) {
+                return;
+            }
+        }
+        recomputeTeam(connection, teamId);
+    }
+
+    /**
+     * team 하나를 member 테이블에서 다시 집계한다. 통계 행이 없으면 만든다.
+     */
+    static void recomputeTeam(Connection connection, Long teamId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT_TEAM)) {
+            statement.setLong(1, teamId);
+            statement.setLong(2, teamId);
+            statement.executeUpdate();
+        }
+    }
+
+    static void deleteTeam(Connection connection, Long teamId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(DELETE_TEAM)) {
+            statement.setLong(1, teamId);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * team_stats 전체를 member 테이블에서 다시 집계한다. O(#members)
+     */
+    static int rebuild(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("delete from team_stats");
+            return statement.executeUpdate(INSERT_ALL);
+        }
+    }
+}
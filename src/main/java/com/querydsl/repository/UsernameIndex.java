@@ -0,0 +1,219 @@
+package com.querydsl.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * (username, member id) 정렬 인덱스(메모리). prefix 검색을 DB 를 거치지 않고 O(log n + limit) 으로 처리한다.
+ * username 은 unique 가 아니므로 같은 username 의 member 도 각각 들어간다.
+ * 시작할 때 member 테이블을 읽어 오고, 이후에는 UsernameIndexEventListener 가 커밋된 변경만 반영한다.
+ * 이벤트가 없는 bulk 삭제(bulkDelete)는 reloadAfterCommit() 으로 다시 읽는다. deleteAllInBatch 처럼 그 밖의 JPQL 삭제는
+ * 반영되지 않으므로 찾은 id 는 DB 에서 다시 확인해야 한다.
+ */
+@Slf4j
+@Component
+public class UsernameIndex {
+
+    private final ObjectProvider<JdbcTemplate> jdbcTemplate;
+    private volatile boolean enabled;
+    // reload() 는 새 인덱스를 만들어 통째로 바꾼다.
+    private volatile NavigableSet<Entry> index = new ConcurrentSkipListSet<>();
+    private volatile boolean loaded;
+    private final Object lock = new Object();
+    private final Object reloadLock = new Object();
+    // 다시 읽는 동안 커밋된 변경. 새 인덱스에 다시 반영한다.
+    private List<Consumer<NavigableSet<Entry>>> changesDuringReload;
+
+    // JdbcTemplate 은 EntityManagerFactory 보다 늦게 만들어지므로(이 빈은 Hibernate 리스너가 사용) 필요할 때 꺼낸다.
+    public UsernameIndex(ObjectProvider<JdbcTemplate> jdbcTemplate,
+                         @Value("${member.username-index.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * member.username 이 binary + NO PAD collation 이 아니면 인덱스를 쓰지 않는다. (prefix 검색은 DB 에서 한다)
+     * 인덱스(Java 문자열 비교)와 DB(collation 비교)의 결과가 설정에 따라 달라지지 않도록 한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        List<String> mismatches = BinaryCollation.mismatches(jdbcTemplate.getObject(), "member.username");
+        if (!mismatches.isEmpty()) {
+            log.warn("username index disabled: member.username must use a binary NO PAD collation {} (db/member_team_binary_collation.sql)", mismatches);
+            enabled = false;
+            return;
+        }
+        reload();
+    }
+
+    /**
+     * member 테이블을 다시 읽어서 새 인덱스로 바꾼다. 읽는 동안에도 기존 인덱스로 검색할 수 있다.
+     */
+    public void reload() {
+        synchronized (reloadLock) {
+            long start = System.nanoTime();
+            synchronized (lock) {
+                changesDuringReload = new ArrayList<>();
+            }
+
+            NavigableSet<Entry> loadedIndex = new ConcurrentSkipListSet<>();
+            try {
+                jdbcTemplate.getObject().query("select member_id, username from member where username is not null",
+                        rs -> {
+                            loadedIndex.add(new Entry(rs.getString(2), rs.getLong(1)));
+                        });
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    changesDuringReload = null;
+                }
+                throw e;
+            }
+            synchronized (lock) {
+                changesDuringReload.forEach(change -> change.accept(loadedIndex));
+                changesDuringReload = null;
+                index = loadedIndex;
+            }
+            loaded = true;
+            log.info("username index loaded: {} entries in {} ms", loadedIndex.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * 이벤트 없이 member 를 지운 뒤(bulk 연산) 호출한다. 트랜잭션이 있으면 끝난 뒤에, 없으면 바로 다시 읽는다.
+     */
+    public void reloadAfterCommit() {
+        if (!loaded) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    reload();
+                }
+            });
+        } else {
+            reload();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * prefix 로 시작하는 username 을 중복 없이 정렬 순서로 limit 개까지 돌려준다.
+     */
+    public List<String> findUsernamesByPrefix(String prefix, int limit) {
+        List<String> usernames = new ArrayList<>(Math.min(limit, 64));
+        for (Entry entry : index.tailSet(Entry.first(prefix))) {
+            if (usernames.size() >= limit || !entry.username.startsWith(prefix)) {
+                break;
+            }
+            if (usernames.isEmpty() || !usernames.get(usernames.size() - 1).equals(entry.username)) {
+                usernames.add(entry.username);
+            }
+        }
+        return usernames;
+    }
+
+    /**
+     * prefix 로 시작하는 username 의 member id 를 (username, id) 순서로 offset 개 건너뛰고 limit 개까지 돌려준다.
+     */
+    public List<Long> findIdsByPrefix(String prefix, int offset, int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, 64));
+        int skipped = 0;
+        for (Entry entry : index.tailSet(Entry.first(prefix))) {
+            if (ids.size() >= limit || !entry.username.startsWith(prefix)) {
+                break;
+            }
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                ids.add(entry.id);
+            }
+        }
+        return ids;
+    }
+
+    void put(String username, Long id) {
+        if (enabled && username != null && id != null) {
+            change(set -> set.add(new Entry(username, id)));
+        }
+    }
+
+    void remove(String username, Long id) {
+        if (username != null && id != null) {
+            change(set -> set.remove(new Entry(username, id)));
+        }
+    }
+
+    private void change(Consumer<NavigableSet<Entry>> change) {
+        synchronized (lock) {
+            change.accept(index);
+            if (changesDuringReload != null) {
+                changesDuringReload.add(change);
+            }
+        }
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+
+        private final String username;
+        private final long id;
+
+        Entry(String username, long id) {
+            this.username = username;
+            this.id = id;
+        }
+
+        // username 이 prefix 이상인 첫 항목의 검색 시작점
+        static Entry first(String prefix) {
+            return new Entry(prefix, Long.MIN_VALUE);
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int result = username.compareTo(other.username);
+            return result != 0 ? result : Long.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry other = (Entry) o;
+            return id == other.id && username.equals(other.username);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * username.hashCode() + Long.hashCode(id);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.querydsl.repository;
+
+import com.querydsl.entity.Member;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.util.Objects;
+
+/**
+ * member 의 insert, update(username), delete 를 커밋된 뒤에 UsernameIndex 에 반영한다.
+ * 롤백된 변경은 반영하지 않는다.
+ */
+public class UsernameIndexEventListener implements Integrator, PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+
+    private final UsernameIndex usernameIndex;
+
+    public UsernameIndexEventListener(UsernameIndex usernameIndex) {
+        this.usernameIndex = usernameIndex;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            Member member = (Member) event.getEntity();
+            String username = member.getUsername();
+            Long id = member.getId();
+            afterCommit(event.getSession(), () -> usernameIndex.put(username, id));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member) || event.getOldState() == null) {
+            return;
+        }
+        int property = event.getPersister().getEntityMetamodel().getPropertyIndex("username");
+        String oldUsername = (String) event.getOldState()[property];
+        String newUsername = (String) event.getState()[property];
+        if (Objects.equals(oldUsername, newUsername)) {
+            return;
+        }
+
+        Long id = (Long) event.getId();
+        afterCommit(event.getSession(), () -> {
+            usernameIndex.remove(oldUsername, id);
+            usernameIndex.put(newUsername, id);
+        });
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            int property = event.getPersister().getEntityMetamodel().getPropertyIndex("username");
+            String username = (String) event.getDeletedState()[property];
+            Long id = (Long) event.getId();
+            afterCommit(event.getSession(), () -> usernameIndex.remove(username, id));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // PostActionEventListener 가 아직 abstract 로 선언하고 있어서 구현은 남겨 둔다. Hibernate 는 requiresPostCommitHandling 을 호출한다.
+    @Override
+    @Deprecated
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    private static void afterCommit(EventSource session, Runnable change) {
+        session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, s) -> {
+            if (success) {
+                change.run();
+            }
+        });
+    }
+}
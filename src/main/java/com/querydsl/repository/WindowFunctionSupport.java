@@ -0,0 +1,39 @@
+package com.querydsl.repository;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MariaDB102Dialect;
+import org.hibernate.dialect.MySQL8Dialect;
+import org.hibernate.dialect.Oracle8iDialect;
+import org.hibernate.dialect.PostgreSQL9Dialect;
+import org.hibernate.dialect.SQLServer2005Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Hibernate 5 Dialect 는 window function 지원 여부를 알려주지 않으므로 dialect 계층으로 판단한다.
+ * MySQL57Dialect 처럼 지원하지 않는 dialect 는 content + count 두 번 조회하는 방식을 사용한다.
+ */
+final class WindowFunctionSupport {
+
+    private WindowFunctionSupport() {
+    }
+
+    static boolean isSupported(EntityManager em) {
+        Dialect dialect = em.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect();
+        return isSupported(dialect);
+    }
+
+    static boolean isSupported(Dialect dialect) {
+        return dialect instanceof H2Dialect
+                || dialect instanceof MySQL8Dialect
+                || dialect instanceof MariaDB102Dialect
+                || dialect instanceof PostgreSQL9Dialect
+                || dialect instanceof Oracle8iDialect
+                || dialect instanceof SQLServer2005Dialect;
+    }
+}
@@ -0,0 +1,128 @@
+package com.querydsl.repository.snapshot;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.roaringbitmap.RoaringBitmapWriter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MemberSnapshot base 행(position)에 대한 roaring bitmap 보조 인덱스.
+ * team slot 별 bitmap 과, age 의 range-encoded bitmap(atMost[k] = age <= ageValues[k] 인 행)을 둔다.
+ * age 범위는 atMost[hi] - atMost[lo] 이므로 team 조건과 합쳐도 bitmap 두세 개의 AND / cardinality 로 끝난다.
+ * 반환하는 bitmap 은 인덱스와 공유할 수 있으므로 호출하는 쪽에서 바꾸면 안 된다.
+ */
+final class MemberIndexes {
+
+    // 서로 다른 age 값이 이보다 많으면 range-encoded 인덱스가 O(값 x 행) 으로 커지므로 만들지 않는다.
+    static final int MAX_AGE_VALUES = 1024;
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    private final int size;
+    private final RoaringBitmap[] teams;
+    private final int[] ageValues;
+    private final RoaringBitmap[] atMost;
+
+    private MemberIndexes(int size, RoaringBitmap[] teams, int[] ageValues, RoaringBitmap[] atMost) {
+        this.size = size;
+        this.teams = teams;
+        this.ageValues = ageValues;
+        this.atMost = atMost;
+    }
+
+    static MemberIndexes build(int size, int[] ages, int[] teamSlots, int teamSlotCount) {
+        List<RoaringBitmapWriter<RoaringBitmap>> teamWriters = new ArrayList<>(teamSlotCount);
+        for (int slot = 0; slot < teamSlotCount; slot++) {
+            teamWriters.add(RoaringBitmapWriter.writer().get());
+        }
+        for (int position = 0; position < size; position++) {
+            teamWriters.get(teamSlots[position]).add(position);
+        }
+        RoaringBitmap[] teams = new RoaringBitmap[teamSlotCount];
+        for (int slot = 0; slot < teamSlotCount; slot++) {
+            teams[slot] = teamWriters.get(slot).get();
+        }
+
+        int[] ageValues = Arrays.stream(ages, 0, size).distinct().sorted().toArray();
+        if (ageValues.length > MAX_AGE_VALUES) {
+            return new MemberIndexes(size, teams, null, null);
+        }
+        List<RoaringBitmapWriter<RoaringBitmap>> ageWriters = new ArrayList<>(ageValues.length);
+        for (int k = 0; k < ageValues.length; k++) {
+            ageWriters.add(RoaringBitmapWriter.writer().get());
+        }
+        for (int position = 0; position < size; position++) {
+            ageWriters.get(Arrays.binarySearch(ageValues, ages[position])).add(position);
+        }
+        RoaringBitmap[] atMost = new RoaringBitmap[ageValues.length];
+        for (int k = 0; k < ageValues.length; k++) {
+            RoaringBitmap equal = ageWriters.get(k).get();
+            atMost[k] = k == 0 ? equal : RoaringBitmap.or(atMost[k - 1], equal);
+            atMost[k].runOptimize();
+        }
+        return new MemberIndexes(size, teams, ageValues, atMost);
+    }
+
+    boolean hasAgeIndex() {
+        return atMost != null;
+    }
+
+    /**
+     * teamMatches[slot] 인 team 에 속한 행. (team 이 없는 slot 0 은 보지 않는다)
+     */
+    RoaringBitmap team(boolean[] teamMatches) {
+        List<RoaringBitmap> matched = new ArrayList<>(2);
+        for (int slot = 1; slot < teams.length && slot < teamMatches.length; slot++) {
+            if (teamMatches[slot]) {
+                matched.add(teams[slot]);
+            }
+        }
+        if (matched.isEmpty()) {
+            return EMPTY;
+        }
+        return matched.size() == 1 ? matched.get(0) : FastAggregation.or(matched.iterator());
+    }
+
+    RoaringBitmap age(int min, int max) {
+        int hi = floor(max);
+        int lo = lowerExclusive(min);
+        if (hi < 0 || lo >= hi) {
+            return EMPTY;
+        }
+        return lo < 0 ? atMost[hi] : RoaringBitmap.andNot(atMost[hi], atMost[lo]);
+    }
+
+    /**
+     * 행을 꺼내지 않고 cardinality 만으로 센다. teamMatches 가 null 이면 team 조건 없음.
+     */
+    long count(boolean[] teamMatches, boolean hasAgeRange, int min, int max) {
+        if (!hasAgeRange) {
+            return teamMatches == null ? size : team(teamMatches).getLongCardinality();
+        }
+        int hi = floor(max);
+        int lo = lowerExclusive(min);
+        if (hi < 0 || lo >= hi) {
+            return 0;
+        }
+        if (teamMatches == null) {
+            return atMost[hi].getLongCardinality() - (lo < 0 ? 0 : atMost[lo].getLongCardinality());
+        }
+        RoaringBitmap team = team(teamMatches);
+        return RoaringBitmap.andCardinality(team, atMost[hi])
+                - (lo < 0 ? 0 : RoaringBitmap.andCardinality(team, atMost[lo]));
+    }
+
+    // value 이하인 가장 큰 ageValues 의 index, 없으면 -1
+    private int floor(int value) {
+        int index = Arrays.binarySearch(ageValues, value);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    // min 미만인 가장 큰 ageValues 의 index, 없으면 -1
+    private int lowerExclusive(int min) {
+        return min == Integer.MIN_VALUE ? -1 : floor(min - 1);
+    }
+}
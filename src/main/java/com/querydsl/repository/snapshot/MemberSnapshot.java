@@ -0,0 +1,473 @@
+package com.querydsl.repository.snapshot;
+
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.repository.snapshot.SnapshotChanges.MemberRow;
+import com.querydsl.repository.snapshot.SnapshotChanges.TeamRow;
+import org.roaringbitmap.BitSetUtil;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.roaringbitmap.RoaringBitmapWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * member / team 을 컬럼별 primitive 배열로 복사해 둔 불변 snapshot.
+ * team / age 조건은 MemberIndexes 의 roaring bitmap 으로, username 은 컬럼을 64 행 단위 bitmap(long) 으로 걸러 낸다.
+ * 마지막 병합 이후의 변경(delta)은 행 단위로 평가해서 id 순으로 합친다.
+ * 조인 규칙은 MemberRepositoryCustomImpl.search 와 같다. (teamName 조건이 있으면 inner join, 없으면 left join)
+ */
+final class MemberSnapshot {
+
+    // team slot 0 은 team 이 없는 member 용
+    private static final int NO_TEAM = 0;
+
+    // member 컬럼 (member_id 오름차순)
+    private final int size;
+    private final long[] ids;
+    private final int[] ages;
+    private final int[] teamSlots;
+    private final int[] usernameCodes;
+    private final UsernameDictionary dictionary;
+
+    private final MemberIndexes indexes;
+
+    private final Teams teams;
+
+    // 병합 전 member 변경 (value 가 null 이면 삭제)과, 그 중 base 에 있는 행의 position
+    private final NavigableMap<Long, MemberRow> delta;
+    private final RoaringBitmap overridden;
+
+    private MemberSnapshot(int size, long[] ids, int[] ages, int[] teamSlots, int[] usernameCodes,
+                           UsernameDictionary dictionary, Teams teams) {
+        this(size, ids, ages, teamSlots, usernameCodes, dictionary,
+                MemberIndexes.build(size, ages, teamSlots, teams.size()), teams,
+                Collections.emptyNavigableMap(), new RoaringBitmap());
+    }
+
+    private MemberSnapshot(int size, long[] ids, int[] ages, int[] teamSlots, int[] usernameCodes,
+                           UsernameDictionary dictionary, MemberIndexes indexes, Teams teams,
+                           NavigableMap<Long, MemberRow> delta, RoaringBitmap overridden) {
+        this.size = size;
+        this.ids = ids;
+        this.ages = ages;
+        this.teamSlots = teamSlots;
+        this.usernameCodes = usernameCodes;
+        this.dictionary = dictionary;
+        this.indexes = indexes;
+        this.teams = teams;
+        this.delta = delta;
+        this.overridden = overridden;
+    }
+
+    /**
+     * member 를 먼저 읽고 team 을 읽는다. member 가 참조하는 team 은 FK 때문에 먼저 커밋되어 있으므로 빠지지 않는다.
+     */
+    static MemberSnapshot load(JdbcTemplate jdbcTemplate) {
+        UsernameDictionary dictionary = new UsernameDictionary();
+        int[] count = {0};
+        long[][] memberIds = {new long[1024]};
+        int[][] ages = {new int[1024]};
+        int[][] codes = {new int[1024]};
+        Long[][] teamIds = {new Long[1024]};
+        jdbcTemplate.query("select member_id, username, age, team_id from member order by member_id", rs -> {
+            int i = count[0]++;
+            if (i == memberIds[0].length) {
+                int capacity = i * 2;
+                memberIds[0] = Arrays.copyOf(memberIds[0], capacity);
+                ages[0] = Arrays.copyOf(ages[0], capacity);
+                codes[0] = Arrays.copyOf(codes[0], capacity);
+                teamIds[0] = Arrays.copyOf(teamIds[0], capacity);
+            }
+            memberIds[0][i] = rs.getLong(1);
+            codes[0][i] = dictionary.encode(rs.getString(2));
+            ages[0][i] = rs.getInt(3);
+            long teamId = rs.getLong(4);
+            teamIds[0][i] = rs.wasNull() ? null : teamId;
+        });
+
+        List<TeamRow> teamRows = jdbcTemplate.query("select team_id, name from team order by team_id",
+                (rs, rowNum) -> new TeamRow(rs.getLong(1), rs.getString(2)));
+        Teams teams = Teams.EMPTY.with(teamRows);
+
+        int size = count[0];
+        int[] teamSlots = new int[size];
+        for (int i = 0; i < size; i++) {
+            teams = teams.ensure(teamIds[0][i]);
+            teamSlots[i] = teams.slotOf(teamIds[0][i]);
+        }
+        return new MemberSnapshot(size, memberIds[0], ages[0], teamSlots, codes[0], dictionary, teams);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int deltaSize() {
+        return delta.size();
+    }
+
+    /**
+     * 커밋된 변경을 delta 에 더한 snapshot. member 컬럼과 인덱스는 복사하지 않는다.
+     */
+    MemberSnapshot withChanges(SnapshotChanges changes) {
+        Teams nextTeams = teams.with(changes.teams().values());
+        for (MemberRow row : changes.members().values()) {
+            if (row != null) {
+                nextTeams = nextTeams.ensure(row.teamId);
+            }
+        }
+        NavigableMap<Long, MemberRow> nextDelta = new TreeMap<>(delta);
+        nextDelta.putAll(changes.members());
+        RoaringBitmap nextOverridden = overridden.clone();
+        for (Long id : changes.members().keySet()) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                nextOverridden.add(position);
+            }
+        }
+        return new MemberSnapshot(size, ids, ages, teamSlots, usernameCodes, dictionary, indexes, nextTeams,
+                nextDelta, nextOverridden);
+    }
+
+    /**
+     * delta 를 member 컬럼에 합치고 인덱스를 다시 만든 snapshot. O(size + delta)
+     */
+    MemberSnapshot merged() {
+        if (delta.isEmpty()) {
+            return this;
+        }
+        int capacity = size + delta.size();
+        long[] nextIds = new long[capacity];
+        int[] nextAges = new int[capacity];
+        int[] nextTeamSlots = new int[capacity];
+        int[] nextCodes = new int[capacity];
+
+        int n = 0;
+        int i = 0;
+        for (Map.Entry<Long, MemberRow> entry : delta.entrySet()) {
+            long id = entry.getKey();
+            int run = i;
+            while (run < size && ids[run] < id) {
+                run++;
+            }
+            System.arraycopy(ids, i, nextIds, n, run - i);
+            System.arraycopy(ages, i, nextAges, n, run - i);
+            System.arraycopy(teamSlots, i, nextTeamSlots, n, run - i);
+            System.arraycopy(usernameCodes, i, nextCodes, n, run - i);
+            n += run - i;
+            i = run;
+            if (i < size && ids[i] == id) {
+                i++;
+            }
+
+            MemberRow row = entry.getValue();
+            if (row != null) {
+                nextIds[n] = id;
+                nextAges[n] = row.age;
+                nextTeamSlots[n] = teams.slotOf(row.teamId);
+                nextCodes[n] = dictionary.encode(row.username);
+                n++;
+            }
+        }
+        System.arraycopy(ids, i, nextIds, n, size - i);
+        System.arraycopy(ages, i, nextAges, n, size - i);
+        System.arraycopy(teamSlots, i, nextTeamSlots, n, size - i);
+        System.arraycopy(usernameCodes, i, nextCodes, n, size - i);
+        n += size - i;
+
+        return new MemberSnapshot(n, nextIds, nextAges, nextTeamSlots, nextCodes, dictionary, teams);
+    }
+
+    Selection select(MemberSearchCondition condition) {
+        String username = hasText(condition.getUsername()) ? condition.getUsername() : null;
+        String teamName = hasText(condition.getTeamName()) ? condition.getTeamName() : null;
+        int minAge = condition.getAgeGoe() == null ? Integer.MIN_VALUE : condition.getAgeGoe();
+        int maxAge = condition.getAgeLoe() == null ? Integer.MAX_VALUE : condition.getAgeLoe();
+        boolean hasAgeRange = minAge != Integer.MIN_VALUE || maxAge != Integer.MAX_VALUE;
+        boolean[] teamMatches = teamName == null ? null : teams.matching(teamName);
+
+        // team / age 는 인덱스 bitmap 의 AND, username 은 남은 행(없으면 컬럼 전체)만 비교한다.
+        RoaringBitmap positions = teamMatches == null ? null : indexes.team(teamMatches);
+        if (hasAgeRange) {
+            RoaringBitmap ageRange = indexes.hasAgeIndex()
+                    ? indexes.age(minAge, maxAge)
+                    : scan(words -> retainBetween(words, ages, minAge, maxAge, size));
+            positions = positions == null ? ageRange : RoaringBitmap.and(positions, ageRange);
+        }
+        if (username != null) {
+            int code = dictionary.codeOf(username);
+            positions = positions == null
+                    ? scan(words -> retainEq(words, usernameCodes, code, size))
+                    : retain(positions, usernameCodes, code);
+        }
+        if (positions == null) {
+            positions = RoaringBitmap.bitmapOfRange(0, size);
+        }
+
+        // delta 에 있는 member 는 base 에서 빼고 delta 의 값으로 평가한다.
+        if (!overridden.isEmpty()) {
+            positions = RoaringBitmap.andNot(positions, overridden);
+        }
+        List<MemberRow> rows = new ArrayList<>();
+        for (MemberRow row : delta.values()) {
+            if (row != null && matches(row, username, teamMatches, minAge, maxAge)) {
+                rows.add(row);
+            }
+        }
+        return new Selection(positions, rows);
+    }
+
+    /**
+     * 행을 꺼내지 않고 센다. username 조건이 없으면 인덱스 cardinality 와 delta 만 본다.
+     */
+    long count(MemberSearchCondition condition) {
+        String teamName = hasText(condition.getTeamName()) ? condition.getTeamName() : null;
+        int minAge = condition.getAgeGoe() == null ? Integer.MIN_VALUE : condition.getAgeGoe();
+        int maxAge = condition.getAgeLoe() == null ? Integer.MAX_VALUE : condition.getAgeLoe();
+        boolean hasAgeRange = minAge != Integer.MIN_VALUE || maxAge != Integer.MAX_VALUE;
+        if (hasText(condition.getUsername()) || (hasAgeRange && !indexes.hasAgeIndex())) {
+            return select(condition).count();
+        }
+
+        boolean[] teamMatches = teamName == null ? null : teams.matching(teamName);
+        long count = indexes.count(teamMatches, hasAgeRange, minAge, maxAge);
+        for (int position : overridden) {
+            if ((teamMatches == null || teamMatches[teamSlots[position]])
+                    && ages[position] >= minAge && ages[position] <= maxAge) {
+                count--;
+            }
+        }
+        for (MemberRow row : delta.values()) {
+            if (row != null && matches(row, null, teamMatches, minAge, maxAge)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean matches(MemberRow row, String username, boolean[] teamMatches, int minAge, int maxAge) {
+        if (username != null && !username.equals(row.username)) {
+            return false;
+        }
+        if (teamMatches != null && !teamMatches[teams.slotOf(row.teamId)]) {
+            return false;
+        }
+        return row.age >= minAge && row.age <= maxAge;
+    }
+
+    private static long[] allOf(int size) {
+        long[] words = new long[(size + 63) >>> 6];
+        Arrays.fill(words, -1L);
+        if ((size & 63) != 0) {
+            words[words.length - 1] = (1L << size) - 1;
+        }
+        return words;
+    }
+
+    private static void retainEq(long[] words, int[] column, int value, int size) {
+        for (int w = 0; w < words.length; w++) {
+            if (words[w] == 0) {
+                continue;
+            }
+            int base = w << 6;
+            int end = Math.min(64, size - base);
+            long mask = 0;
+            for (int j = 0; j < end; j++) {
+                mask |= (column[base + j] == value ? 1L : 0L) << j;
+            }
+            words[w] &= mask;
+        }
+    }
+
+    private RoaringBitmap scan(Consumer<long[]> filter) {
+        long[] words = allOf(size);
+        filter.accept(words);
+        return BitSetUtil.bitmapOf(words);
+    }
+
+    private static RoaringBitmap retain(RoaringBitmap positions, int[] column, int value) {
+        RoaringBitmapWriter<RoaringBitmap> writer = RoaringBitmapWriter.writer().get();
+        IntIterator iterator = positions.getIntIterator();
+        while (iterator.hasNext()) {
+            int position = iterator.next();
+            if (column[position] == value) {
+                writer.add(position);
+            }
+        }
+        return writer.get();
+    }
+
+    private static void retainBetween(long[] words, int[] column, int min, int max, int size) {
+        for (int w = 0; w < words.length; w++) {
+            if (words[w] == 0) {
+                continue;
+            }
+            int base = w << 6;
+            int end = Math.min(64, size - base);
+            long mask = 0;
+            for (int j = 0; j < end; j++) {
+                int value = column[base + j];
+                mask |= (value >= min & value <= max ? 1L : 0L) << j;
+            }
+            words[w] &= mask;
+        }
+    }
+
+    private MemberTeamDto baseDto(int position) {
+        int slot = teamSlots[position];
+        return new MemberTeamDto(ids[position], dictionary.decode(usernameCodes[position]), ages[position],
+                teams.idOf(slot), teams.nameOf(slot));
+    }
+
+    private MemberTeamDto rowDto(MemberRow row) {
+        int slot = teams.slotOf(row.teamId);
+        return new MemberTeamDto(row.id, row.username, row.age, teams.idOf(slot), teams.nameOf(slot));
+    }
+
+    /**
+     * 조건에 맞는 행. base 는 position bitmap, delta 는 행 목록으로 갖고 있다가 꺼낼 때 member_id 순으로 합친다.
+     */
+    final class Selection {
+
+        private final RoaringBitmap positions;
+        private final List<MemberRow> rows;
+
+        private Selection(RoaringBitmap positions, List<MemberRow> rows) {
+            this.positions = positions;
+            this.rows = rows;
+        }
+
+        long count() {
+            return positions.getLongCardinality() + rows.size();
+        }
+
+        List<MemberTeamDto> fetch(long offset, int limit) {
+            List<MemberTeamDto> content = new ArrayList<>(Math.min(limit, 1024));
+            PeekableIntIterator iterator = positions.getIntIterator();
+            long skip = offset;
+            if (rows.isEmpty() && skip > 0) {
+                // delta 가 없으면 offset 번째 행으로 바로 건너뛴다.
+                if (skip >= positions.getLongCardinality()) {
+                    return content;
+                }
+                iterator.advanceIfNeeded(positions.select((int) skip));
+                skip = 0;
+            }
+            int r = 0;
+            while (content.size() < limit) {
+                boolean hasBase = iterator.hasNext();
+                boolean hasRow = r < rows.size();
+                if (!hasBase && !hasRow) {
+                    break;
+                }
+                boolean fromBase = hasBase && (!hasRow || ids[iterator.peekNext()] < rows.get(r).id);
+                if (fromBase) {
+                    int position = iterator.next();
+                    if (skip > 0) {
+                        skip--;
+                    } else {
+                        content.add(baseDto(position));
+                    }
+                } else {
+                    MemberRow row = rows.get(r++);
+                    if (skip > 0) {
+                        skip--;
+                    } else {
+                        content.add(rowDto(row));
+                    }
+                }
+            }
+            return content;
+        }
+    }
+
+    /**
+     * team slot -> id / name. team 은 적으므로 바뀔 때마다 배열을 복사한다.
+     */
+    private static final class Teams {
+
+        static final Teams EMPTY = new Teams(new Long[]{null}, new String[]{null}, Collections.emptyMap());
+
+        private final Long[] ids;
+        private final String[] names;
+        private final Map<Long, Integer> slots;
+
+        private Teams(Long[] ids, String[] names, Map<Long, Integer> slots) {
+            this.ids = ids;
+            this.names = names;
+            this.slots = slots;
+        }
+
+        // 삭제된 team(null)은 그대로 둔다. 참조하는 member 가 FK 때문에 먼저 지워지거나 옮겨지므로 검색 결과에 나오지 않는다.
+        Teams with(Collection<TeamRow> rows) {
+            if (rows.isEmpty()) {
+                return this;
+            }
+            List<Long> nextIds = new ArrayList<>(Arrays.asList(ids));
+            List<String> nextNames = new ArrayList<>(Arrays.asList(names));
+            Map<Long, Integer> nextSlots = new HashMap<>(slots);
+            for (TeamRow row : rows) {
+                if (row == null) {
+                    continue;
+                }
+                Integer slot = nextSlots.get(row.id);
+                if (slot != null) {
+                    nextNames.set(slot, row.name);
+                } else {
+                    nextSlots.put(row.id, nextIds.size());
+                    nextIds.add(row.id);
+                    nextNames.add(row.name);
+                }
+            }
+            return new Teams(nextIds.toArray(new Long[0]), nextNames.toArray(new String[0]), nextSlots);
+        }
+
+        // team 변경보다 member 변경이 먼저 반영되는 경우를 위해 이름 없는 slot 을 만들어 둔다.
+        Teams ensure(Long teamId) {
+            return teamId == null || slots.containsKey(teamId)
+                    ? this : with(Collections.singletonList(new TeamRow(teamId, null)));
+        }
+
+        int slotOf(Long teamId) {
+            if (teamId == null) {
+                return NO_TEAM;
+            }
+            Integer slot = slots.get(teamId);
+            return slot == null ? NO_TEAM : slot;
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        Long idOf(int slot) {
+            return ids[slot];
+        }
+
+        String nameOf(int slot) {
+            return names[slot];
+        }
+
+        boolean[] matching(String name) {
+            boolean[] matches = new boolean[names.length];
+            for (int slot = 1; slot < names.length; slot++) {
+                matches[slot] = name.equals(names[slot]);
+            }
+            return matches;
+        }
+    }
+}
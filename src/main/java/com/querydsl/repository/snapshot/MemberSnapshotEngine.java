@@ -0,0 +1,228 @@
+package com.querydsl.repository.snapshot;
+
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.repository.BinaryCollation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * member / team 의 메모리 컬럼 snapshot 으로 username / teamName / ageGoe / ageLoe 검색을 DB 없이 처리한다.
+ * 결과는 MemberRepositoryCustomImpl.search 와 같고 member_id 순으로 정렬된다.
+ * 시작할 때 적재하고, 이후에는 MemberSnapshotEventListener 가 커밋된 변경만 반영한다. (같은 트랜잭션의 커밋 전 변경은 보이지 않는다)
+ * bulk 연산처럼 이벤트가 없는 변경은 reloadAfterCommit() 으로 다시 적재하고, 그동안은 isAvailable() 이 false 이다.
+ * 문자열은 Java equals 로 비교하므로, MySQL 에서 member.username / team.name 의 collation 이 binary + NO PAD 가 아니면
+ * (대소문자, 끝 공백을 무시하는 비교) DB 와 결과가 달라지므로 켜지 않는다. (db/member_team_binary_collation.sql)
+ */
+@Slf4j
+@Component
+public class MemberSnapshotEngine {
+
+    private final ObjectProvider<JdbcTemplate> jdbcTemplate;
+    private final boolean enabled;
+    private final int mergeThreshold;
+
+    private final Object lock = new Object();
+    private final Object reloadLock = new Object();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private volatile MemberSnapshot snapshot;
+    private volatile long loadedAt = -1;
+    private volatile boolean tracking;
+    // 다시 적재하는 동안 커밋된 member / team id. 적재가 끝나면 다시 읽어서 새 snapshot 에 반영한다.
+    private Set<Long> membersTouchedDuringReload;
+    private Set<Long> teamsTouchedDuringReload;
+
+    // JdbcTemplate 은 EntityManagerFactory 보다 늦게 만들어지므로(이 빈은 Hibernate 리스너가 사용) 필요할 때 꺼낸다.
+    public MemberSnapshotEngine(ObjectProvider<JdbcTemplate> jdbcTemplate,
+                                @Value("${member.snapshot.enabled:false}") boolean enabled,
+                                @Value("${member.snapshot.merge-threshold:4096}") int mergeThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.mergeThreshold = mergeThreshold;
+        this.tracking = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        List<String> mismatches = collationMismatches(jdbcTemplate.getObject());
+        if (!mismatches.isEmpty()) {
+            log.warn("member snapshot disabled: string columns must use a binary NO PAD collation {} (db/member_team_binary_collation.sql)", mismatches);
+            tracking = false;
+            return;
+        }
+        reload();
+    }
+
+    //이벤트로 반영되지 않는 변경(JDBC 로 직접 수정한 데이터 등)을 바로잡는다.
+    @Scheduled(cron = "${member.snapshot.reload-cron:-}")
+    public void scheduledReload() {
+        if (enabled && tracking) {
+            reload();
+        }
+    }
+
+    /**
+     * snapshot 이 비교하는 문자열 컬럼 중 collation 이 binary + NO PAD 가 아닌 컬럼.
+     */
+    static List<String> collationMismatches(JdbcTemplate jdbcTemplate) {
+        return BinaryCollation.mismatches(jdbcTemplate, "member.username", "team.name");
+    }
+
+    /**
+     * member / team 테이블을 다시 읽어서 바꾼다. 읽는 동안에도 기존 snapshot 으로 검색할 수 있다.
+     */
+    public void reload() {
+        synchronized (reloadLock) {
+            long start = System.nanoTime();
+            long invalidation = invalidations.get();
+            synchronized (lock) {
+                tracking = true;
+                membersTouchedDuringReload = new LinkedHashSet<>();
+                teamsTouchedDuringReload = new LinkedHashSet<>();
+            }
+
+            MemberSnapshot loaded;
+            try {
+                loaded = MemberSnapshot.load(jdbcTemplate.getObject());
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    membersTouchedDuringReload = null;
+                    teamsTouchedDuringReload = null;
+                }
+                throw e;
+            }
+            synchronized (lock) {
+                try {
+                    // 적재 중에 커밋된 행은 적재한 값이 더 오래됐을 수 있으므로 지금 값을 다시 읽는다.
+                    if (!membersTouchedDuringReload.isEmpty() || !teamsTouchedDuringReload.isEmpty()) {
+                        loaded = loaded.withChanges(SnapshotChanges.read(jdbcTemplate.getObject(),
+                                membersTouchedDuringReload, teamsTouchedDuringReload));
+                    }
+                    snapshot = loaded.merged();
+                    loadedAt = invalidation;
+                } finally {
+                    membersTouchedDuringReload = null;
+                    teamsTouchedDuringReload = null;
+                }
+            }
+            log.info("member snapshot loaded: {} members in {} ms", snapshot.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * 이벤트 없이 member 를 바꾼 뒤(bulk 연산) 호출한다. 트랜잭션이 끝나면 다시 적재하고, 그때까지는 사용하지 않는다.
+     */
+    public void reloadAfterCommit() {
+        if (!tracking) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    reload();
+                }
+            });
+        } else {
+            reload();
+        }
+    }
+
+    public boolean isAvailable() {
+        return snapshot != null && loadedAt == invalidations.get();
+    }
+
+    /**
+     * 부분 일치 조건(usernamePrefix, usernameContains)은 DB 에서 검색한다.
+     */
+    public boolean supports(MemberSearchCondition condition) {
+        return isAvailable() && !hasText(condition.getUsernamePrefix()) && !hasText(condition.getUsernameContains());
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return current(condition).select(condition).fetch(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * member_id 순 페이지. Pageable 의 정렬은 지원하지 않는다.
+     */
+    public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        if (pageable.getSort().isSorted()) {
+            throw new IllegalArgumentException("member snapshot does not support sort: " + pageable.getSort());
+        }
+        MemberSnapshot.Selection selection = current(condition).select(condition);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(selection.fetch(0, Integer.MAX_VALUE));
+        }
+        return new PageImpl<>(selection.fetch(pageable.getOffset(), pageable.getPageSize()), pageable,
+                selection.count());
+    }
+
+    /**
+     * 검색 결과 수. team / age 조건은 bitmap AND / cardinality 로 세므로 행을 꺼내지 않는다.
+     */
+    public long count(MemberSearchCondition condition) {
+        return current(condition).count(condition);
+    }
+
+    boolean isTracking() {
+        return tracking;
+    }
+
+    /**
+     * 커밋된 트랜잭션에서 바뀐 member / team 을 DB 에서 다시 읽어 반영한다.
+     * lock 안에서 읽으므로, 트랜잭션들의 반영 순서가 커밋 순서와 달라도 마지막에 반영된 값이 최신 커밋 값이다.
+     */
+    void apply(Collection<Long> memberIds, Collection<Long> teamIds) {
+        synchronized (lock) {
+            if (membersTouchedDuringReload != null) {
+                membersTouchedDuringReload.addAll(memberIds);
+                teamsTouchedDuringReload.addAll(teamIds);
+            }
+            MemberSnapshot current = snapshot;
+            if (current != null) {
+                try {
+                    MemberSnapshot next = current.withChanges(SnapshotChanges.read(jdbcTemplate.getObject(), memberIds, teamIds));
+                    snapshot = next.deltaSize() > mergeThreshold ? next.merged() : next;
+                } catch (DataAccessException e) {
+                    // 반영하지 못한 변경이 있으므로 다시 적재할 때까지 사용하지 않는다.
+                    log.warn("member snapshot: failed to apply committed changes, unavailable until next reload", e);
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private MemberSnapshot current(MemberSearchCondition condition) {
+        if (!supports(condition)) {
+            throw new IllegalStateException("member snapshot cannot evaluate " + condition);
+        }
+        return snapshot;
+    }
+}
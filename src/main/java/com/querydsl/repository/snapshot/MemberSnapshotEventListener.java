@@ -0,0 +1,109 @@
+package com.querydsl.repository.snapshot;
+
+import com.querydsl.entity.Member;
+import com.querydsl.entity.Team;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.io.Serializable;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * member / team 의 insert, update, delete 가 일어난 id 를 트랜잭션 단위로 모았다가 커밋된 뒤에 MemberSnapshotEngine 에 넘긴다.
+ * 값은 엔진이 DB 에서 다시 읽는다. 롤백된 변경은 반영하지 않는다.
+ */
+public class MemberSnapshotEventListener implements Integrator, PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+
+    private final MemberSnapshotEngine engine;
+    private final Map<EventSource, Touched> pending = new ConcurrentHashMap<>();
+
+    public MemberSnapshotEventListener(MemberSnapshotEngine engine) {
+        this.engine = engine;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        touch(event.getSession(), event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        touch(event.getSession(), event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        touch(event.getSession(), event.getEntity(), event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // PostActionEventListener 가 아직 abstract 로 선언하고 있어서 구현은 남겨 둔다. Hibernate 는 requiresPostCommitHandling 을 호출한다.
+    @Override
+    @Deprecated
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    private void touch(EventSource session, Object entity, Serializable id) {
+        if (!engine.isTracking()) {
+            return;
+        }
+        if (entity instanceof Member) {
+            touched(session).memberIds.add((Long) id);
+        } else if (entity instanceof Team) {
+            touched(session).teamIds.add((Long) id);
+        }
+    }
+
+    private Touched touched(EventSource session) {
+        return pending.computeIfAbsent(session, key -> {
+            key.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, s) -> {
+                Touched touched = pending.remove(key);
+                if (success && touched != null) {
+                    engine.apply(touched.memberIds, touched.teamIds);
+                }
+            });
+            return new Touched();
+        });
+    }
+
+    private static final class Touched {
+
+        private final Set<Long> memberIds = new LinkedHashSet<>();
+        private final Set<Long> teamIds = new LinkedHashSet<>();
+    }
+}
@@ -0,0 +1,110 @@
+package com.querydsl.repository.snapshot;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * member / team 변경. 커밋된 뒤에 바뀐 행을 DB 에서 다시 읽어 만들고 MemberSnapshotEngine 에 한 번에 반영한다.
+ * 값이 null 이면 삭제된 것이다.
+ */
+final class SnapshotChanges {
+
+    private static final int IN_LIST_SIZE = 500;
+
+    private final Map<Long, MemberRow> members = new LinkedHashMap<>();
+    private final Map<Long, TeamRow> teams = new LinkedHashMap<>();
+
+    /**
+     * 주어진 member / team 의 현재(커밋된) 행을 읽는다. 없는 행은 삭제로 기록한다.
+     * 이벤트에 담긴 값 대신 DB 를 다시 읽으므로, 트랜잭션의 커밋 순서와 반영 순서가 달라도 마지막 반영은 최신 값이 된다.
+     */
+    static SnapshotChanges read(JdbcTemplate jdbcTemplate, Collection<Long> memberIds, Collection<Long> teamIds) {
+        SnapshotChanges changes = new SnapshotChanges();
+        for (List<Long> chunk : chunks(memberIds)) {
+            chunk.forEach(changes::deleteMember);
+            jdbcTemplate.query("select member_id, username, age, team_id from member where member_id in ("
+                    + placeholders(chunk.size()) + ")", rs -> {
+                long teamId = rs.getLong(4);
+                Long nullableTeamId = rs.wasNull() ? null : teamId;
+                changes.putMember(rs.getLong(1), rs.getString(2), rs.getInt(3), nullableTeamId);
+            }, chunk.toArray());
+        }
+        for (List<Long> chunk : chunks(teamIds)) {
+            chunk.forEach(changes::deleteTeam);
+            jdbcTemplate.query("select team_id, name from team where team_id in (" + placeholders(chunk.size()) + ")",
+                    rs -> {
+                        changes.putTeam(rs.getLong(1), rs.getString(2));
+                    }, chunk.toArray());
+        }
+        return changes;
+    }
+
+    private void putMember(Long id, String username, int age, Long teamId) {
+        members.put(id, new MemberRow(id, username, age, teamId));
+    }
+
+    private void deleteMember(Long id) {
+        members.put(id, null);
+    }
+
+    private void putTeam(Long id, String name) {
+        teams.put(id, new TeamRow(id, name));
+    }
+
+    private void deleteTeam(Long id) {
+        teams.put(id, null);
+    }
+
+    Map<Long, MemberRow> members() {
+        return members;
+    }
+
+    Map<Long, TeamRow> teams() {
+        return teams;
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> values = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += IN_LIST_SIZE) {
+            chunks.add(values.subList(from, Math.min(values.size(), from + IN_LIST_SIZE)));
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    static final class MemberRow {
+
+        final long id;
+        final String username;
+        final int age;
+        final Long teamId;
+
+        MemberRow(long id, String username, int age, Long teamId) {
+            this.id = id;
+            this.username = username;
+            this.age = age;
+            this.teamId = teamId;
+        }
+    }
+
+    static final class TeamRow {
+
+        final long id;
+        final String name;
+
+        TeamRow(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+}
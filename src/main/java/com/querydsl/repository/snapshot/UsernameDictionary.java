@@ -0,0 +1,51 @@
+package com.querydsl.repository.snapshot;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * username <-> int code 사전. 코드는 추가만 되므로 이전 snapshot 과 새 snapshot 이 같은 사전을 함께 쓴다.
+ * 추가(encode)는 MemberSnapshotEngine 의 lock 안에서만 호출한다. 지워진 username 은 다시 적재할 때 정리된다.
+ */
+final class UsernameDictionary {
+
+    static final int NULL = -1;
+    static final int ABSENT = -2;
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[1024];
+    private int size;
+
+    int encode(String username) {
+        if (username == null) {
+            return NULL;
+        }
+        Integer code = codes.get(username);
+        if (code != null) {
+            return code;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = username;
+        codes.put(username, size);
+        return size++;
+    }
+
+    /**
+     * 사전에 없는 username 은 ABSENT 를 돌려준다. (어떤 행과도 같지 않다)
+     */
+    int codeOf(String username) {
+        Integer code = codes.get(username);
+        return code == null ? ABSENT : code;
+    }
+
+    String decode(int code) {
+        return code < 0 ? null : values[code];
+    }
+
+    int size() {
+        return codes.size();
+    }
+}
@@ -0,0 +1,116 @@
+package com.querydsl.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * 여러 곳에서 따로 요청한 단건 조회를 모아서 batch 조회 한 번으로 처리한다. (DataLoader 방식)
+ * load 는 future 만 돌려주고, dispatch 할 때 그때까지 쌓인 key 를 한 번에 조회한다.
+ * 아직 조회되지 않은 future 를 join / get 으로 기다리면 그 자리에서 dispatch 하므로, dispatch 를 빠뜨려도 멈추지 않는다.
+ * 같은 key 는 한 번만 조회하고 결과를 재사용하므로 요청 범위(request scope)로 쓴다.
+ */
+public class BatchLoader<K, V> {
+
+    private final Function<Set<K>, Map<K, V>> batchFunction;
+    private final Map<K, CompletableFuture<V>> futures = new HashMap<>();
+    private final Set<K> queue = new LinkedHashSet<>();
+
+    public BatchLoader(Function<Set<K>, Map<K, V>> batchFunction) {
+        this.batchFunction = batchFunction;
+    }
+
+    public synchronized CompletableFuture<V> load(K key) {
+        return futures.computeIfAbsent(key, k -> {
+            queue.add(k);
+            return new DispatchingFuture<>(this);
+        });
+    }
+
+    /**
+     * load 한 뒤 바로 dispatch 한다. 다른 스레드가 쌓아 둔 key 도 같이 조회된다.
+     */
+    public V get(K key) {
+        CompletableFuture<V> future = load(key);
+        dispatch();
+        return future.join();
+    }
+
+    public void dispatch() {
+        Set<K> keys;
+        Map<K, CompletableFuture<V>> pending = new HashMap<>();
+        synchronized (this) {
+            if (queue.isEmpty()) {
+                return;
+            }
+            keys = new LinkedHashSet<>(queue);
+            queue.clear();
+            keys.forEach(key -> pending.put(key, futures.get(key)));
+        }
+
+        Map<K, V> values;
+        try {
+            values = batchFunction.apply(keys);
+        } catch (RuntimeException e) {
+            // 실패한 key 는 다음 load 에서 다시 조회할 수 있도록 결과 캐시에서 뺀다.
+            synchronized (this) {
+                keys.forEach(futures::remove);
+            }
+            pending.values().forEach(future -> future.completeExceptionally(e));
+            throw e;
+        }
+        pending.forEach((key, future) -> future.complete(values.get(key)));
+    }
+
+    /**
+     * 완료되기 전에 join / get 하면 먼저 dispatch 한다. thenApply 등으로 만든 future 도 같은 동작을 한다.
+     */
+    private static final class DispatchingFuture<T> extends CompletableFuture<T> {
+
+        private final BatchLoader<?, ?> loader;
+
+        DispatchingFuture(BatchLoader<?, ?> loader) {
+            this.loader = loader;
+        }
+
+        @Override
+        public T join() {
+            dispatchIfPending();
+            return super.join();
+        }
+
+        @Override
+        public T get() throws InterruptedException, ExecutionException {
+            dispatchIfPending();
+            return super.get();
+        }
+
+        @Override
+        public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            dispatchIfPending();
+            return super.get(timeout, unit);
+        }
+
+        @Override
+        public <U> CompletableFuture<U> newIncompleteFuture() {
+            return new DispatchingFuture<>(loader);
+        }
+
+        private void dispatchIfPending() {
+            if (isDone()) {
+                return;
+            }
+            try {
+                loader.dispatch();
+            } catch (RuntimeException e) {
+                // 실패한 batch 의 future 는 이미 예외로 완료되어 있으므로 join / get 에서 던진다.
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.querydsl.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.repository.MemberRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 검색 결과 전체를 메모리에 올리지 않고 한 줄씩 OutputStream 으로 내보낸다.
+ */
+@Service
+public class MemberExportService {
+
+    private static final int FLUSH_EVERY = 1_000;
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MemberScanService memberScanService;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final int parallelism;
+
+    public MemberExportService(MemberRepository memberRepository,
+                               PlatformTransactionManager transactionManager,
+                               MemberScanService memberScanService,
+                               ObjectMapper objectMapper,
+                               @Value("${member.export.fetch-size:1000}") int fetchSize,
+                               @Value("${member.export.parallelism:1}") int parallelism) {
+        this.memberRepository = memberRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.memberScanService = memberScanService;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.parallelism = parallelism;
+    }
+
+    public void exportNdjson(MemberSearchCondition condition, OutputStream out) {
+        export(condition, out, null, (writer, dto) -> {
+            writer.write(objectMapper.writeValueAsString(dto));
+            writer.write('\n');
+        });
+    }
+
+    public void exportCsv(MemberSearchCondition condition, OutputStream out) {
+        export(condition, out, "memberId,username,age,teamId,teamName\n", (writer, dto) -> {
+            writer.write(String.valueOf(dto.getMemberId()));
+            writer.write(',');
+            writer.write(csv(dto.getUsername()));
+            writer.write(',');
+            writer.write(String.valueOf(dto.getAge()));
+            writer.write(',');
+            writer.write(dto.getTeamId() == null ? "" : String.valueOf(dto.getTeamId()));
+            writer.write(',');
+            writer.write(csv(dto.getTeamName()));
+            writer.write('\n');
+        });
+    }
+
+    private void export(MemberSearchCondition condition, OutputStream out, String header, RowWriter rowWriter) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (parallelism > 1) {
+            exportPartitioned(condition, writer, header, rowWriter);
+            return;
+        }
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<MemberTeamDto> rows = memberRepository.streamSearch(condition, fetchSize)) {
+                if (header != null) {
+                    writer.write(header);
+                }
+                int count = 0;
+                Iterator<MemberTeamDto> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    rowWriter.write(writer, iterator.next());
+                    if (++count % FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // member_id 범위를 나누어 여러 커넥션으로 읽는다. 순서는 한 번에 읽을 때와 같다. (member_id 순)
+    private void exportPartitioned(MemberSearchCondition condition, Writer writer, String header, RowWriter rowWriter) {
+        try {
+            if (header != null) {
+                writer.write(header);
+            }
+            long[] count = {0};
+            memberScanService.scan(condition, parallelism, true, dto -> {
+                try {
+                    rowWriter.write(writer, dto);
+                    if (++count[0] % FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Writer writer, MemberTeamDto dto) throws IOException;
+    }
+}
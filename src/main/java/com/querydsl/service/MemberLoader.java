@@ -0,0 +1,45 @@
+package com.querydsl.service;
+
+import com.querydsl.entity.Member;
+import com.querydsl.repository.MemberRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 요청 하나 안에서 username / id 단건 조회를 모아 findByUsernames / findByIds 한 번으로 실행한다.
+ * 여러 곳에서 load 한 뒤 dispatch 하면 한 번에 조회된다. dispatch 하지 않고 join 해도 그 시점에 조회된다.
+ * username 은 unique 가 아니므로 해당하는 member 목록(없으면 빈 목록)으로, id 는 member(없으면 null)로 완료된다.
+ */
+@Component
+@RequestScope
+public class MemberLoader {
+
+    private final BatchLoader<String, List<Member>> byUsername;
+    private final BatchLoader<Long, Member> byId;
+
+    public MemberLoader(MemberRepository memberRepository) {
+        this.byUsername = new BatchLoader<>(usernames -> {
+            Map<String, List<Member>> members = memberRepository.findByUsernames(usernames);
+            usernames.forEach(username -> members.putIfAbsent(username, List.of()));
+            return members;
+        });
+        this.byId = new BatchLoader<>(memberRepository::findByIds);
+    }
+
+    public CompletableFuture<List<Member>> loadByUsername(String username) {
+        return byUsername.load(username);
+    }
+
+    public CompletableFuture<Member> loadById(Long id) {
+        return byId.load(id);
+    }
+
+    public void dispatch() {
+        byUsername.dispatch();
+        byId.dispatch();
+    }
+}
@@ -0,0 +1,232 @@
+package com.querydsl.service;
+
+import com.querydsl.config.AsyncConfiguration;
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.repository.MemberRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * member_id 범위를 partition 으로 나누어 여러 커넥션에서 동시에 읽는다. (전체 export, 일괄 처리용)
+ * worker 는 partition 을 하나씩 가져가서 자기 스레드의 읽기 전용 트랜잭션(EntityManager, 커넥션)으로 scanMembers 를 실행하고,
+ * 읽은 행은 fetchSize 단위 묶음으로 호출한 스레드에 넘긴다. action 은 호출한 스레드에서만 실행되므로 thread-safe 하지 않아도 된다.
+ * ordered 이면 member_id 순서대로, 아니면 먼저 읽힌 묶음부터 넘긴다.
+ * 전체 결과가 한 트랜잭션의 snapshot 이 아니므로 스캔 도중 커밋된 변경은 partition 마다 보이거나 보이지 않을 수 있다.
+ */
+@Service
+public class MemberScanService {
+
+    // worker 당 partition 수. partition 을 잘게 나눠야 id 가 몰린 구간이 있어도 worker 들이 비슷하게 끝난다.
+    static final int PARTITIONS_PER_WORKER = 4;
+    // partition(ordered) 또는 worker(unordered) 당 대기시킬 수 있는 묶음 수. 호출한 쪽이 느리면 worker 가 기다린다.
+    private static final int QUEUED_BATCHES = 4;
+    private static final List<MemberTeamDto> END = List.of();
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Executor executor;
+    private final int maxParallelism;
+    private final int fetchSize;
+
+    public MemberScanService(MemberRepository memberRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Qualifier(AsyncConfiguration.MEMBER_SCAN_EXECUTOR) Executor executor,
+                             @Value("${member.scan.pool-size:4}") int maxParallelism,
+                             @Value("${member.scan.fetch-size:1000}") int fetchSize) {
+        this.memberRepository = memberRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = executor;
+        this.maxParallelism = maxParallelism;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * @param parallelism 동시에 읽는 worker(커넥션) 수. member.scan.pool-size 를 넘지 않는다.
+     * @return action 에 넘긴 행 수
+     */
+    public long scan(MemberSearchCondition condition, int parallelism, boolean ordered, Consumer<MemberTeamDto> action) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        Optional<Range<Long>> idRange = readOnlyTransaction.execute(status -> memberRepository.findMemberIdRange(condition));
+        if (idRange == null || idRange.isEmpty()) {
+            return 0;
+        }
+
+        int workers = Math.min(parallelism, maxParallelism);
+        List<Range<Long>> partitions = partitions(idRange.get().getLowerBound().getValue().orElseThrow(),
+                idRange.get().getUpperBound().getValue().orElseThrow(), workers * PARTITIONS_PER_WORKER);
+        Scan scan = new Scan(condition, partitions, ordered, Math.min(workers, partitions.size()));
+        for (int i = 0; i < scan.workers; i++) {
+            executor.execute(scan::work);
+        }
+        return scan.drain(action);
+    }
+
+    /**
+     * [minId, maxId] 를 count 개 이하의 같은 폭 구간으로 나눈다.
+     */
+    static List<Range<Long>> partitions(long minId, long maxId, int count) {
+        long width = Math.max(1, (maxId - minId) / count + 1);
+        List<Range<Long>> partitions = new ArrayList<>(count);
+        for (long from = minId; from <= maxId; from += width) {
+            partitions.add(Range.closed(from, Math.min(maxId, from + width - 1)));
+            if (maxId - from < width) {
+                break;
+            }
+        }
+        return partitions;
+    }
+
+    private class Scan {
+
+        private final MemberSearchCondition condition;
+        private final List<Range<Long>> partitions;
+        private final boolean ordered;
+        private final int workers;
+        private final AtomicInteger nextPartition = new AtomicInteger();
+        // ordered 이면 partition 마다 하나, 아니면 하나를 함께 쓴다.
+        private final List<BlockingQueue<List<MemberTeamDto>>> queues = new ArrayList<>();
+        private volatile Throwable failure;
+        private volatile boolean cancelled;
+
+        Scan(MemberSearchCondition condition, List<Range<Long>> partitions, boolean ordered, int workers) {
+            this.condition = condition;
+            this.partitions = partitions;
+            this.ordered = ordered;
+            this.workers = workers;
+            if (ordered) {
+                partitions.forEach(partition -> queues.add(new ArrayBlockingQueue<>(QUEUED_BATCHES)));
+            } else {
+                queues.add(new ArrayBlockingQueue<>(QUEUED_BATCHES * workers));
+            }
+        }
+
+        void work() {
+            int index;
+            while (!cancelled && (index = nextPartition.getAndIncrement()) < partitions.size()) {
+                BlockingQueue<List<MemberTeamDto>> queue = queues.get(ordered ? index : 0);
+                Range<Long> partition = partitions.get(index);
+                try {
+                    Batcher batcher = new Batcher(queue);
+                    readOnlyTransaction.executeWithoutResult(status ->
+                            memberRepository.scanMembers(condition, partition, fetchSize, batcher));
+                    batcher.flush();
+                    put(queue, END);
+                } catch (Throwable e) {
+                    if (!cancelled) {
+                        failure = e;
+                        cancelled = true;
+                    }
+                    return;
+                }
+            }
+        }
+
+        long drain(Consumer<MemberTeamDto> action) {
+            long count = 0;
+            try {
+                if (ordered) {
+                    for (BlockingQueue<List<MemberTeamDto>> queue : queues) {
+                        for (List<MemberTeamDto> batch = take(queue); batch != END; batch = take(queue)) {
+                            batch.forEach(action);
+                            count += batch.size();
+                        }
+                    }
+                } else {
+                    int finished = 0;
+                    while (finished < partitions.size()) {
+                        List<MemberTeamDto> batch = take(queues.get(0));
+                        if (batch == END) {
+                            finished++;
+                        } else {
+                            batch.forEach(action);
+                            count += batch.size();
+                        }
+                    }
+                }
+                return count;
+            } finally {
+                // action 에서 예외가 나면 남은 worker 를 멈춘다. (정상 종료면 이미 끝나 있다)
+                cancelled = true;
+            }
+        }
+
+        private List<MemberTeamDto> take(BlockingQueue<List<MemberTeamDto>> queue) {
+            try {
+                while (true) {
+                    Throwable cause = failure;
+                    if (cause != null) {
+                        throw cause instanceof RuntimeException
+                                ? (RuntimeException) cause : new IllegalStateException("member scan failed", cause);
+                    }
+                    List<MemberTeamDto> batch = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (batch != null) {
+                        return batch;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("member scan interrupted");
+            }
+        }
+
+        private void put(BlockingQueue<List<MemberTeamDto>> queue, List<MemberTeamDto> batch) {
+            try {
+                while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+                    if (cancelled) {
+                        throw new CancellationException("member scan cancelled");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("member scan interrupted");
+            }
+        }
+
+        /**
+         * 행을 fetchSize 개씩 묶어서 큐에 넣는다.
+         */
+        private class Batcher implements Consumer<MemberTeamDto> {
+
+            private final BlockingQueue<List<MemberTeamDto>> queue;
+            private List<MemberTeamDto> batch = new ArrayList<>(fetchSize);
+
+            Batcher(BlockingQueue<List<MemberTeamDto>> queue) {
+                this.queue = queue;
+            }
+
+            @Override
+            public void accept(MemberTeamDto dto) {
+                batch.add(dto);
+                if (batch.size() >= fetchSize) {
+                    flush();
+                }
+            }
+
+            void flush() {
+                if (!batch.isEmpty()) {
+                    put(queue, batch);
+                    batch = new ArrayList<>(fetchSize);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.querydsl.service;
+
+import com.querydsl.config.AsyncConfiguration;
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.repository.MemberRepository;
+import com.querydsl.repository.PageCounts;
+import com.querydsl.repository.snapshot.MemberSnapshotEngine;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * searchPageComplex 의 content 쿼리와 count 쿼리를 각각 다른 스레드(다른 커넥션)에서 동시에 실행한다.
+ * 응답 시간은 두 쿼리의 합이 아니라 느린 쪽 하나에 가까워진다.
+ */
+@Service
+public class MemberSearchService {
+
+    private final MemberRepository memberRepository;
+    private final MemberSnapshotEngine snapshotEngine;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Executor executor;
+
+    public MemberSearchService(MemberRepository memberRepository, MemberSnapshotEngine snapshotEngine,
+                               PlatformTransactionManager transactionManager,
+                               @Qualifier(AsyncConfiguration.MEMBER_QUERY_EXECUTOR) Executor executor) {
+        this.memberRepository = memberRepository;
+        this.snapshotEngine = snapshotEngine;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Page<MemberTeamDto>> searchPageAsync(MemberSearchCondition condition, Pageable pageable) {
+        CompletableFuture<List<MemberTeamDto>> content = CompletableFuture.supplyAsync(
+                () -> readOnlyTransaction.execute(status -> memberRepository.searchContent(condition, pageable)),
+                executor);
+        CompletableFuture<Long> count = CompletableFuture.supplyAsync(
+                () -> readOnlyTransaction.execute(status -> memberRepository.searchCount(condition)),
+                executor);
+
+        // count 가 필요 없는 페이지(첫 페이지가 덜 찼거나 마지막 페이지)에서는 count 결과를 기다리지 않는다.
+        return content.thenCompose(rows -> PageCounts.isRequired(rows.size(), pageable)
+                ? count.thenApply(total -> (Page<MemberTeamDto>) new PageImpl<>(rows, pageable, total))
+                : CompletableFuture.completedFuture(PageableExecutionUtils.getPage(rows, pageable, count::join)));
+    }
+
+    /**
+     * member snapshot 으로 검색한다. snapshot 을 쓸 수 없는 조건, 정렬이 있거나 아직 적재되지 않았으면 searchPageComplex 로 검색한다.
+     */
+    public Page<MemberTeamDto> searchPageFromSnapshot(MemberSearchCondition condition, Pageable pageable) {
+        if (pageable.getSort().isUnsorted() && snapshotEngine.supports(condition)) {
+            return snapshotEngine.searchPage(condition, pageable);
+        }
+        return memberRepository.searchPageComplex(condition, pageable);
+    }
+}
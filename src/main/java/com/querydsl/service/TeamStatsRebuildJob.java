@@ -0,0 +1,26 @@
+package com.querydsl.service;
+
+import com.querydsl.repository.TeamStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * team_stats 를 member 테이블에서 주기적으로 다시 집계한다.
+ * 이벤트로 반영되지 않는 변경(JDBC 로 직접 수정한 데이터 등)으로 생긴 차이를 바로잡는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TeamStatsRebuildJob {
+
+    private final TeamStatsRepository teamStatsRepository;
+
+    @Scheduled(cron = "${team.stats.rebuild-cron:0 0 4 * * *}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        int teams = teamStatsRepository.rebuildTeamStats();
+        log.info("team_stats rebuilt: {} teams in {} ms", teams, (System.nanoTime() - start) / 1_000_000);
+    }
+}
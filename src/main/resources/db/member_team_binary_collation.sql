@@ -0,0 +1,5 @@
+-- member snapshot(member.snapshot.enabled), username 인덱스(member.username-index.enabled)용 collation (MySQL 8.0+)
+-- 두 기능은 문자열을 Java 로 비교하므로 member.username / team.name 이 binary + NO PAD collation 이어야 켜진다. (BinaryCollation)
+-- 바꾸면 DB 검색도 대소문자와 끝 공백을 구분하고, 인덱스(idx_member_username, ft_member_username)는 다시 만들어진다.
+alter table member modify username varchar(255) character set utf8mb4 collate utf8mb4_0900_bin;
+alter table team modify name varchar(255) character set utf8mb4 collate utf8mb4_0900_bin;
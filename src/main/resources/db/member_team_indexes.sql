@@ -0,0 +1,6 @@
+-- Member / Team 의 @Table(indexes) 선언과 같은 인덱스 (MySQL)
+-- idx_member_team_age 는 (team_id, age) 범위 조건과 MemberTeamDto 조회(member_id, username)를 모두 커버한다.
+create index idx_member_username on member (username);
+create index idx_member_team_age on member (team_id, age, username);
+create index idx_member_age on member (age);
+create index idx_team_name on team (name);
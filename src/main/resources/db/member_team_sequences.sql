@@ -0,0 +1,11 @@
+-- member / team 식별자를 pooled sequence(allocationSize = 50) 로 바꾸면서 필요한 sequence 테이블 (MySQL)
+-- ddl-auto=validate 환경에서는 배포 전에 실행한다. 여러 번 실행해도 된다.
+-- pooled optimizer 는 읽은 값(next_val)을 hi 로 보고 (next_val - 49) ~ next_val 을 할당하므로,
+-- next_val 은 기존 최대 id 보다 allocationSize(50) 이상 커야 기존 행과 겹치지 않는다.
+create table if not exists member_seq (next_val bigint) engine=InnoDB;
+insert into member_seq select 0 from dual where not exists (select * from member_seq);
+update member_seq set next_val = greatest(next_val, (select coalesce(max(member_id), 0) + 50 from member));
+
+create table if not exists team_seq (next_val bigint) engine=InnoDB;
+insert into team_seq select 0 from dual where not exists (select * from team_seq);
+update team_seq set next_val = greatest(next_val, (select coalesce(max(team_id), 0) + 50 from team));
@@ -0,0 +1,4 @@
+-- username 부분 일치 검색(fulltext_match)용 FULLTEXT 인덱스 (MySQL 5.7+)
+-- ngram parser 는 username 을 ngram_token_size(기본 2) 글자 단위로 나누므로 중간 글자로도 검색된다.
+-- 기본 stopword 를 포함한 토큰은 색인되지 않으므로 innodb_ft_enable_stopword=OFF 로 두고 만든다.
+create fulltext index ft_member_username on member (username) with parser ngram;
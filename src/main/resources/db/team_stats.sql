@@ -0,0 +1,21 @@
+-- team 별 member 통계 요약 테이블 (MySQL). TeamStats 엔티티와 같은 구조.
+-- ddl-auto=validate 환경에서는 배포 전에 한 번 실행한다. 이후에는 TeamStatsEventListener 와 TeamStatsRebuildJob 이 갱신한다.
+create table team_stats (
+    team_id bigint not null,
+    member_count bigint not null,
+    age_sum bigint not null,
+    min_age integer,
+    max_age integer,
+    age_0_11 bigint not null,
+    age_12_20 bigint not null,
+    age_other bigint not null,
+    primary key (team_id)
+) engine=InnoDB;
+
+insert into team_stats (team_id, member_count, age_sum, min_age, max_age, age_0_11, age_12_20, age_other)
+select t.team_id, count(m.member_id), coalesce(sum(m.age), 0), min(m.age), max(m.age),
+       coalesce(sum(case when m.age between 0 and 11 then 1 else 0 end), 0),
+       coalesce(sum(case when m.age between 12 and 20 then 1 else 0 end), 0),
+       coalesce(sum(case when m.age < 0 or m.age > 20 then 1 else 0 end), 0)
+from team t left join member m on m.team_id = t.team_id
+group by t.team_id;
@@ -16,8 +16,10 @@ import com.querydsl.entity.QTeam;
 import com.querydsl.entity.Team;
 import com.querydsl.jpa.JPAExpressions;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.repository.InvalidCursorException;
 import com.querydsl.repository.MemberJpaRepository;
 import com.querydsl.repository.MemberRepository;
+import com.querydsl.repository.MemberSearchQueryCache;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -27,6 +29,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
@@ -47,6 +50,9 @@ public class QuerydslBasicTest2 {
     @Autowired
     MemberRepository memberRepository;
 
+    @Autowired
+    MemberSearchQueryCache searchQueryCache;
+
     QMember member = QMember.member;
     QTeam team = QTeam.team;
 
@@ -220,6 +226,25 @@ public class QuerydslBasicTest2 {
         assertThat(result).extracting("username").containsExactly("member1","member2");
     }
 
+    @Test
+    public void searchQueryCacheTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member1");
+        condition.setAgeLoe(30);
+        memberRepository.search(condition);
+
+        long hits = searchQueryCache.getHitCount();
+        long misses = searchQueryCache.getMissCount();
+
+        condition.setUsername("member2");
+        condition.setAgeLoe(11);
+        List<MemberTeamDto> result = memberRepository.search(condition);
+
+        assertThat(result).extracting("username").containsExactly("member2");
+        assertThat(searchQueryCache.getHitCount()).isEqualTo(hits + 1);
+        assertThat(searchQueryCache.getMissCount()).isEqualTo(misses);
+    }
+
     @Test
     public void findMemberTest() {
         MemberSearchCondition condition = new MemberSearchCondition();
@@ -282,4 +307,94 @@ public class QuerydslBasicTest2 {
         assertThat(result.getNumberOfElements()).isEqualTo(3);
         assertThat(result.getContent()).extracting("username").containsExactly("member4","member5","member6");
     }
+
+    @Test
+    public void searchPageSimpleTotalTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        Page<MemberTeamDto> result = memberRepository.searchPageSimple(condition, PageRequest.of(1, 3));
+        assertThat(result.getContent()).extracting("username").containsExactly("member4", "member5", "member6");
+        assertThat(result.getTotalElements()).isEqualTo(10);
+
+        Page<MemberTeamDto> beyond = memberRepository.searchPageSimple(condition, PageRequest.of(5, 3));
+        assertThat(beyond.getContent()).isEmpty();
+        assertThat(beyond.getTotalElements()).isEqualTo(10);
+    }
+
+    @Test
+    public void searchPageComplexLastPageTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        PageRequest pageRequest = PageRequest.of(3, 3);
+
+        Page<MemberTeamDto> result = memberRepository.searchPageComplex(condition, pageRequest);
+
+        assertThat(result.getContent()).extracting("username").containsExactly("member10");
+        assertThat(result.getTotalElements()).isEqualTo(10);
+        assertThat(result.isLast()).isTrue();
+    }
+
+    @Test
+    public void searchSliceTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        CursorSlice<MemberTeamDto> first = memberRepository.searchSlice(condition, null, 3);
+        assertThat(first.getContent()).extracting("username").containsExactly("member1", "member2", "member3");
+        assertThat(first.isHasNext()).isTrue();
+
+        CursorSlice<MemberTeamDto> second = memberRepository.searchSlice(condition, first.getNextCursor(), 3);
+        assertThat(second.getContent()).extracting("username").containsExactly("member4", "member5", "member6");
+
+        assertThatThrownBy(() -> memberRepository.searchSlice(condition, "not-a-cursor", 3))
+                .isInstanceOf(InvalidCursorException.class);
+
+        // size 는 MAX_SLICE_SIZE 로 제한한다. (size + 1 이 넘치지 않는다)
+        CursorSlice<MemberTeamDto> all = memberRepository.searchSlice(condition, null, Integer.MAX_VALUE);
+        assertThat(all.getSize()).isEqualTo(1000);
+        assertThat(all.isHasNext()).isFalse();
+    }
+
+    @Test
+    public void saveAllBatchedTest() {
+        Team teamC = new Team("teamC");
+        em.persist(teamC);
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            members.add(new Member("batch" + i, 20, teamC));
+        }
+
+        int saved = memberRepository.saveAllBatched(members, 50);
+        assertThat(saved).isEqualTo(120);
+        // 저장한 member 만 detach 하고 호출한 쪽의 엔티티는 그대로 둔다.
+        assertThat(em.contains(teamC)).isTrue();
+        assertThat(members).noneMatch(em::contains);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamC");
+        assertThat(memberRepository.search(condition)).hasSize(120);
+    }
+
+    @Test
+    public void bulkOperationTest() {
+        MemberSearchCondition teamA = new MemberSearchCondition();
+        teamA.setTeamName("teamA");
+
+        long aged = memberRepository.bulkAddAge(teamA, 1);
+        assertThat(aged).isEqualTo(2);
+        assertThat(memberRepository.search(teamA)).extracting("age").containsExactly(11, 12);
+
+        Long teamBId = queryFactory.select(team.id).from(team).where(team.name.eq("teamB")).fetchOne();
+        Team teamB = em.find(Team.class, teamBId);
+        long moved = memberRepository.bulkChangeTeam(teamA, teamBId);
+        assertThat(moved).isEqualTo(2);
+        assertThat(memberRepository.search(teamA)).isEmpty();
+        assertThat(memberRepository.findByUsername("member1").getTeam().getName()).isEqualTo("teamB");
+        // 호출한 쪽의 영속성 컨텍스트는 비우지 않는다. (member 만 분리)
+        assertThat(em.contains(teamB)).isTrue();
+
+        MemberSearchCondition old = new MemberSearchCondition();
+        old.setAgeGoe(18);
+        assertThat(memberRepository.bulkDelete(old)).isEqualTo(2);
+        assertThat(memberRepository.search(new MemberSearchCondition())).hasSize(8);
+    }
 }
@@ -0,0 +1,67 @@
+package com.querydsl.config;
+
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.repository.MemberRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * prod 프로필의 풀 / 드라이버 설정이 HikariDataSource 에 적용되는지와 풀 메트릭을 확인한다.
+ * Connector/J 설정은 H2 드라이버가 무시한다. 드라이버 / 스키마 설정은 H2 로 직접 지정해서 기본 설정(MySQL)에 의존하지 않는다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:prod_profile;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"})
+@ActiveProfiles("prod")
+class DataSourceConfigurationTest {
+
+    @Autowired
+    HikariDataSource dataSource;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Test
+    void prodProfileConfiguresPoolAndStatementCache() {
+        assertThat(dataSource.getPoolName()).isEqualTo("primary");
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(20);
+        assertThat(dataSource.getMinimumIdle()).isEqualTo(20);
+        assertThat(dataSource.getConnectionTimeout()).isEqualTo(3000);
+        assertThat(dataSource.getDataSourceProperties())
+                .containsEntry("cachePrepStmts", "true")
+                .containsEntry("useServerPrepStmts", "true")
+                .containsEntry("rewriteBatchedStatements", "true")
+                .containsEntry("useCursorFetch", "true");
+    }
+
+    @Test
+    void poolWaitAndUsageMetrics() {
+        memberRepository.searchPageComplex(new MemberSearchCondition(), PageRequest.of(0, 10));
+
+        Timer acquire = registry.get("hikaricp.connections.acquire").tag("pool", "primary").timer();
+        assertThat(acquire.count()).isPositive();
+        assertThat(Arrays.stream(acquire.takeSnapshot().histogramCounts()).map(CountAtBucket::bucket))
+                .contains(TimeUnit.MILLISECONDS.toNanos(10) * 1.0);
+        assertThat(registry.get("hikaricp.connections.usage").tag("pool", "primary").timer().count()).isPositive();
+        assertThat(registry.get("hikaricp.connections.max").tag("pool", "primary").gauge().value()).isEqualTo(20);
+    }
+}
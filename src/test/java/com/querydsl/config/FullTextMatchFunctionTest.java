@@ -0,0 +1,33 @@
+package com.querydsl.config;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQL57Dialect;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FullTextMatchFunctionTest {
+
+    FullTextMatchFunction function = new FullTextMatchFunction();
+
+    @Test
+    void mysqlUsesFullTextPhraseSearch() {
+        assertThat(function.render(new MySQL57Dialect(), List.of("m.username", "?")))
+                .isEqualTo("match (m.username) against (concat('\"', ?, '\"') in boolean mode)");
+    }
+
+    @Test
+    void mysqlWithoutFullTextIndexFallsBackToLocate() {
+        function.setIndexAvailable(false);
+        assertThat(function.render(new MySQL57Dialect(), List.of("m.username", "?")))
+                .isEqualTo("locate(?, m.username)");
+    }
+
+    @Test
+    void otherDatabasesFallBackToLocate() {
+        assertThat(function.render(new H2Dialect(), List.of("m.username", "?")))
+                .isEqualTo("locate(?, m.username)");
+    }
+}
@@ -0,0 +1,85 @@
+package com.querydsl.config;
+
+import com.querydsl.datasource.ReplicaRoutingDataSource;
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.entity.Member;
+import com.querydsl.entity.Team;
+import com.querydsl.repository.MemberRepository;
+import com.querydsl.repository.TeamRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * replica 는 primary 와 같은 H2 메모리 DB 를 가리키는 별도 커넥션 풀로 대신한다.
+ * 스키마와 데이터는 이 테스트가 직접 만든다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:routing_context;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "datasource.routing.enabled=true",
+        "datasource.routing.replicas[0].driver-class-name=org.h2.Driver",
+        "datasource.routing.replicas[0].url=jdbc:h2:mem:routing_context;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "datasource.routing.replicas[0].username=sa",
+        "datasource.routing.replicas[0].password=",
+        "datasource.routing.health-check-interval=0s"
+})
+class RoutingDataSourceConfigurationTest {
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Test
+    void readOnlyRepositoryMethodsUseReplica() {
+        Team team = teamRepository.save(new Team("routingTeam"));
+        memberRepository.save(new Member("routingMember1", 10, team));
+        memberRepository.save(new Member("routingMember2", 20, team));
+
+        assertThat(dataSource).isInstanceOf(LazyConnectionDataSourceProxy.class);
+        assertThat(replicaRoutingDataSource.isHealthy("replica-0")).isTrue();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("routingTeam");
+        assertThat(memberRepository.searchPageComplex(condition, PageRequest.of(0, 10)).getContent()).hasSize(2);
+
+        assertThat(acquireCount("replica-0")).isPositive();
+
+        long primaryAcquired = acquireCount("primary");
+        long replicaAcquired = acquireCount("replica-0");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> memberRepository.search(condition));
+        assertThat(acquireCount("primary")).isEqualTo(primaryAcquired + 1);
+        assertThat(acquireCount("replica-0")).isEqualTo(replicaAcquired);
+    }
+
+    private long acquireCount(String pool) {
+        return registry.get("hikaricp.connections.acquire").tag("pool", pool).timer().count();
+    }
+}
@@ -0,0 +1,34 @@
+package com.querydsl.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class SchemaIndexVerifierTest {
+
+    @Autowired
+    SchemaIndexVerifier schemaIndexVerifier;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void declaredIndexesExist() throws Exception {
+        assertThat(schemaIndexVerifier.verify()).isEmpty();
+    }
+
+    @Test
+    void reportsMissingIndex() throws Exception {
+        jdbcTemplate.execute("alter table member drop index idx_member_age");
+        try {
+            assertThat(schemaIndexVerifier.verify())
+                    .singleElement().asString().contains("idx_member_age");
+        } finally {
+            jdbcTemplate.execute("create index idx_member_age on member (age)");
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.querydsl.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querydsl.config.CacheConfiguration;
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.entity.Member;
+import com.querydsl.repository.MemberRepository;
+import com.querydsl.repository.TableVersions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberResponseCacheTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberResponseCache memberResponseCache;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    Statistics statistics;
+    // 요청 사이에 ETag 시간 구간이 바뀌지 않도록 시계를 고정한다.
+    final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+
+    @BeforeEach
+    void before() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        memberResponseCache.clock = now::get;
+    }
+
+    @AfterEach
+    void after() {
+        memberResponseCache.clock = System::currentTimeMillis;
+    }
+
+    @Test
+    void notModifiedWithoutQuery() throws Exception {
+        String etag = search("/v2/members?teamName=teamA&page=0&size=10", null)
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(content().string(containsString("\"username\":\"member1\"")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        statistics.clear();
+        search("/v2/members?teamName=teamA&page=0&size=10", etag)
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void sameNormalizedConditionIsServedFromCache() throws Exception {
+        MvcResult first = search("/v3/members?teamName=teamA&size=5", null).andReturn();
+
+        statistics.clear();
+        MvcResult second = search("/v3/members?teamName=teamA&username=&size=5", null)
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(second.getResponse().getContentAsByteArray()).isEqualTo(first.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    void committedWriteChangesEtag() throws Exception {
+        String url = "/v2/members?username=member3";
+        String etag = search(url, null).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // repository 를 거치지 않은 변경(dirty checking)도 버전을 올린다.
+        Long memberId = memberRepository.findByUsername("member3").getId();
+        changeAge(memberId, 99, false);
+        try {
+            search(url, etag)
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                    .andExpect(content().string(containsString("\"age\":99")));
+        } finally {
+            changeAge(memberId, 12, false);
+        }
+    }
+
+    @Test
+    void rolledBackWriteKeepsEtag() throws Exception {
+        String url = "/v2/members?username=member4";
+        String etag = search(url, null).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        changeAge(memberRepository.findByUsername("member4").getId(), 99, true);
+
+        search(url, etag).andExpect(status().isNotModified());
+    }
+
+    @Test
+    void bulkOperationChangesEtag() throws Exception {
+        String url = "/v3/members?username=member5";
+        String etag = search(url, null).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member5");
+        memberRepository.bulkAddAge(condition, 1);
+        try {
+            search(url, etag)
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(containsString("\"age\":15")));
+        } finally {
+            memberRepository.bulkAddAge(condition, -1);
+        }
+    }
+
+    @Test
+    void unversionedWriteIsServedAfterTtl() throws Exception {
+        String url = "/v3/members?username=member2";
+        String etag = search(url, null).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // 다른 인스턴스의 쓰기처럼 버전을 올리지 않는 변경
+        jdbcTemplate.update("update member set age = 77 where username = 'member2'");
+        try {
+            search(url, etag).andExpect(status().isNotModified());
+            search(url, null).andExpect(content().string(not(containsString("\"age\":77"))));
+
+            // ttl 이 지나고, 그 아래의 검색 결과 캐시(memberSearch, 실제 시간으로 만료)도 만료된 상태
+            now.addAndGet(Duration.ofSeconds(30).toMillis());
+            cacheManager.getCache(CacheConfiguration.MEMBER_SEARCH).clear();
+            search(url, etag)
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                    .andExpect(content().string(containsString("\"age\":77")));
+        } finally {
+            jdbcTemplate.update("update member set age = 11 where username = 'member2'");
+        }
+    }
+
+    @Test
+    void disabledCacheSearchesEveryRequest() {
+        MemberResponseCache disabled = new MemberResponseCache(new TableVersions(), new ObjectMapper(), false,
+                DataSize.ofMegabytes(1), Duration.ofSeconds(30));
+        AtomicInteger searches = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            ResponseEntity<byte[]> response = disabled.get("v2", new MemberSearchCondition(), PageRequest.of(0, 10),
+                    new ServletWebRequest(new MockHttpServletRequest()), () -> List.of(searches.incrementAndGet()));
+            assertThat(response.getHeaders().getETag()).isNull();
+            assertThat(response.getBody()).asString().isEqualTo("[" + (i + 1) + "]");
+        }
+        assertThat(disabled.getNativeCache().estimatedSize()).isZero();
+    }
+
+    private ResultActions search(String url, String ifNoneMatch) throws Exception {
+        return mockMvc.perform(ifNoneMatch == null ? get(url) : get(url).header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch));
+    }
+
+    private void changeAge(Long memberId, int age, boolean rollback) {
+        transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.findById(memberId).ifPresent(member -> member.setAge(age));
+            if (rollback) {
+                memberRepository.flush();
+                status.setRollbackOnly();
+            }
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package com.querydsl.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    ReplicaRoutingDataSource routing;
+    DataSource dataSource;
+    TransactionTemplate writeTransaction;
+    TransactionTemplate readOnlyTransaction;
+
+    @AfterEach
+    void after() {
+        ReadOnlyRequestContext.clear();
+        if (routing != null) {
+            routing.destroy();
+        }
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        setUp(Duration.ZERO, "routing_replica1");
+
+        assertThat(readOnlyUrl()).contains("routing_replica1");
+        assertThat(writeUrl()).contains("routing_primary");
+        assertThat(currentUrl()).contains("routing_primary");
+
+        ReadOnlyRequestContext.markReadOnly();
+        assertThat(currentUrl()).contains("routing_replica1");
+        assertThat(writeUrl()).contains("routing_primary");
+    }
+
+    @Test
+    void replicasAreUsedInTurn() {
+        setUp(Duration.ZERO, "routing_replica1", "routing_replica2");
+
+        String first = readOnlyUrl();
+        String second = readOnlyUrl();
+
+        assertThat(first).isNotEqualTo(second);
+        assertThat(first + second).contains("routing_replica1").contains("routing_replica2");
+    }
+
+    @Test
+    void unavailableReplicaFallsBackToPrimary() {
+        setUp(Duration.ZERO, "routing_replica1");
+        JdbcDataSource broken = new JdbcDataSource();
+        broken.setURL("jdbc:h2:mem:routing_broken;IFEXISTS=TRUE");
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("broken", broken);
+        init(new ReplicaRoutingDataSource(h2("routing_primary"), replicas), Duration.ZERO);
+
+        assertThat(routing.isHealthy("broken")).isFalse();
+        assertThat(readOnlyUrl()).contains("routing_primary");
+    }
+
+    @Test
+    void readsStickToPrimaryAfterWrite() {
+        setUp(Duration.ofMinutes(1), "routing_replica1");
+
+        assertThat(readOnlyUrl()).contains("routing_replica1");
+
+        writeUrl();
+
+        assertThat(readOnlyUrl()).contains("routing_primary");
+    }
+
+    private void setUp(Duration stickyAfterWrite, String... replicaNames) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String name : replicaNames) {
+            replicas.put(name, h2(name));
+        }
+        init(new ReplicaRoutingDataSource(h2("routing_primary"), replicas), stickyAfterWrite);
+    }
+
+    private void init(ReplicaRoutingDataSource routing, Duration stickyAfterWrite) {
+        if (this.routing != null) {
+            this.routing.destroy();
+        }
+        routing.setHealthCheckInterval(Duration.ZERO);
+        routing.setStickyAfterWrite(stickyAfterWrite);
+        routing.afterPropertiesSet();
+        this.routing = routing;
+        this.dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    private String readOnlyUrl() {
+        return readOnlyTransaction.execute(status -> currentUrl());
+    }
+
+    private String writeUrl() {
+        return writeTransaction.execute(status -> currentUrl());
+    }
+
+    private String currentUrl() {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return connection.getMetaData().getURL();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
@@ -0,0 +1,133 @@
+package com.querydsl.metrics;
+
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.entity.Member;
+import com.querydsl.entity.Team;
+import com.querydsl.repository.MemberRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = "querydsl.metrics.slow-query-threshold=1ns")
+@Transactional
+@ExtendWith(OutputCaptureExtension.class)
+class QueryMetricsTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("metricsTeamA");
+        em.persist(teamA);
+        em.persist(new Member("metricsMember1", 10, teamA));
+        em.persist(new Member("metricsMember2", 20, teamA));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void repositoryCallIsTaggedWithMethodAndShape() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("metricsTeamA");
+        condition.setAgeGoe(15);
+
+        long callsBefore = callCount("searchPageComplex", "teamName+ageGoe");
+        memberRepository.searchPageComplex(condition, PageRequest.of(0, 10));
+
+        assertThat(callCount("searchPageComplex", "teamName+ageGoe")).isEqualTo(callsBefore + 1);
+        Timer query = registry.find("querydsl.query")
+                .tags("method", "searchPageComplex", "shape", "teamName+ageGoe", "outcome", "success")
+                .timer();
+        assertThat(query).isNotNull();
+        DistributionSummary statements = registry.find("querydsl.repository.statements")
+                .tags("method", "searchPageComplex", "shape", "teamName+ageGoe")
+                .summary();
+        assertThat(statements).isNotNull();
+        assertThat(statements.max()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void cachedSearchPlanIsMetered() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("metricsMember1");
+
+        List<MemberTeamDto> result = memberRepository.search(condition);
+
+        assertThat(result).extracting("username").containsExactly("metricsMember1");
+        assertThat(registry.find("querydsl.query").tags("method", "search", "shape", "username").timer())
+                .isNotNull();
+        assertThat(registry.find("querydsl.repository.rows").tags("method", "search", "shape", "username")
+                .summary().max()).isGreaterThanOrEqualTo(1);
+        assertThat(registry.find("querydsl.search.plan.cache").tag("result", "miss").functionCounter())
+                .isNotNull();
+    }
+
+    @Test
+    void slowQueryIsLoggedWithJpql(CapturedOutput output) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeLoe(10);
+
+        memberRepository.searchPageSimple(condition, PageRequest.of(0, 5));
+
+        assertThat(output).contains("slow query").contains("method=searchPageSimple").contains("shape=ageLoe")
+                .contains("bindParameters=");
+    }
+
+    @Test
+    void streamIsMeteredWhenConsumed() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("metricsTeamA");
+
+        long before = queryCount("streamSearch");
+        try (Stream<MemberTeamDto> stream = memberRepository.streamSearch(condition, 10)) {
+            assertThat(stream.count()).isEqualTo(2);
+        }
+        assertThat(queryCount("streamSearch")).isEqualTo(before + 1);
+    }
+
+    @Test
+    void bulkUpdateIsMetered() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("metricsMember1");
+
+        long before = queryCount("bulkAddAge");
+        assertThat(memberRepository.bulkAddAge(condition, 1)).isEqualTo(1);
+
+        // chunk 경계를 찾는 select 와 update 가 함께 기록된다.
+        assertThat(queryCount("bulkAddAge")).isGreaterThanOrEqualTo(before + 2);
+    }
+
+    private long queryCount(String method) {
+        return registry.find("querydsl.query").tags("method", method, "outcome", "success").timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+
+    private long callCount(String method, String shape) {
+        Timer timer = registry.find("querydsl.repository.calls").tags("method", method, "shape", shape).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,20 @@
+package com.querydsl.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BinaryCollationTest {
+
+    @Test
+    void onlyBinaryNoPadCollationsMatchJavaComparison() {
+        assertThat(BinaryCollation.isBinaryNoPad("utf8mb4_0900_bin", "NO PAD")).isTrue();
+        assertThat(BinaryCollation.isBinaryNoPad(null, null)).isTrue();
+
+        // 대소문자 무시 / 끝 공백 무시
+        assertThat(BinaryCollation.isBinaryNoPad("utf8mb4_0900_ai_ci", "NO PAD")).isFalse();
+        assertThat(BinaryCollation.isBinaryNoPad("utf8mb4_bin", "PAD SPACE")).isFalse();
+        // MySQL 5.7 은 pad_attribute 가 없다.
+        assertThat(BinaryCollation.isBinaryNoPad("utf8mb4_bin", null)).isFalse();
+    }
+}
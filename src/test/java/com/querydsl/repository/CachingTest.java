@@ -0,0 +1,131 @@
+package com.querydsl.repository;
+
+import com.querydsl.config.CacheConfiguration;
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.entity.Member;
+import com.querydsl.entity.Team;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class CachingTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void after() {
+        cacheManager.getCache(CacheConfiguration.MEMBER_SEARCH).clear();
+    }
+
+    @Test
+    void searchResultIsCachedUntilRepositoryWrite() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member3");
+
+        List<MemberTeamDto> first = memberRepository.search(condition);
+        List<MemberTeamDto> second = memberRepository.search(condition);
+        assertThat(second).isSameAs(first);
+        // 캐시된 결과는 공유되므로 호출한 쪽에서 바꿀 수 없다.
+        assertThatThrownBy(() -> first.clear()).isInstanceOf(UnsupportedOperationException.class);
+
+        Member saved = memberRepository.save(new Member("cached", 50));
+        try {
+            assertThat(memberRepository.search(condition)).isNotSameAs(first);
+        } finally {
+            memberRepository.delete(saved);
+        }
+    }
+
+    @Test
+    void anyCommittedMemberOrTeamWriteEvictsSearchResults() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        // repository 메서드가 아닌 dirty checking 으로 바꾼 경우
+        List<MemberTeamDto> before = memberRepository.search(condition);
+        Long memberId = memberRepository.findByUsername("member3").getId();
+        changeTeam(memberId, "teamA");
+        try {
+            assertThat(memberRepository.search(condition)).isNotSameAs(before)
+                    .extracting(MemberTeamDto::getUsername).contains("member3");
+        } finally {
+            changeTeam(memberId, null);
+        }
+
+        List<MemberTeamDto> cached = memberRepository.search(condition);
+        Member saved = memberRepository.saveAndFlush(new Member("cachedFlush", 50));
+        assertThat(memberRepository.search(condition)).isNotSameAs(cached);
+
+        cached = memberRepository.search(condition);
+        memberRepository.deleteAllByIdInBatch(List.of(saved.getId()));
+        assertThat(memberRepository.search(condition)).isNotSameAs(cached);
+    }
+
+    @Test
+    void rolledBackWriteKeepsSearchResults() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member4");
+        List<MemberTeamDto> cached = memberRepository.search(condition);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.saveAndFlush(new Member("rolledBack", 50));
+            status.setRollbackOnly();
+        });
+
+        assertThat(memberRepository.search(condition)).isSameAs(cached);
+    }
+
+    @Test
+    void teamIsServedFromSecondLevelCache() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        Long teamId = teamRepository.findAll().get(0).getId();
+
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            EntityManager em = emf.createEntityManager();
+            try {
+                em.find(Team.class, teamId);
+            } finally {
+                em.close();
+            }
+        });
+
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    private void changeTeam(Long memberId, String teamName) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Member member = memberRepository.findById(memberId).orElseThrow();
+            member.setTeam(teamName == null ? null : teamRepository.findAll().stream()
+                    .filter(team -> team.getName().equals(teamName))
+                    .findFirst().orElseThrow());
+        });
+    }
+}
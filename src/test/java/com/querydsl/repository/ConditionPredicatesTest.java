@@ -0,0 +1,54 @@
+package com.querydsl.repository;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.entity.QMember;
+import com.querydsl.entity.QTeam;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ConditionPredicatesTest {
+
+    @Test
+    void emptyConditionHasNoPredicate() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername(" ");
+
+        assertThat(MemberPredicates.JPA.toPredicate(condition)).isNull();
+    }
+
+    @Test
+    void presentValuesAreJoinedWithAnd() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        condition.setAgeGoe(10);
+        condition.setAgeLoe(20);
+
+        Predicate predicate = MemberPredicates.JPA.toPredicate(condition);
+
+        assertThat(predicate).isEqualTo(QTeam.team.name.eq("teamA")
+                .and(QMember.member.age.goe(10))
+                .and(QMember.member.age.loe(20)));
+    }
+
+    @Test
+    void otherConditionTypesCanPlugIn() {
+        ConditionPredicates<TeamCondition> teamPredicates = ConditionPredicates.<TeamCondition>builder()
+                .eq(TeamCondition::getName, QTeam.team.name)
+                .eqIfPresent(TeamCondition::getId, QTeam.team.id)
+                .build();
+
+        TeamCondition condition = new TeamCondition();
+        condition.setId(1L);
+
+        assertThat(teamPredicates.toPredicate(condition)).isEqualTo(QTeam.team.id.eq(1L));
+    }
+
+    @Data
+    static class TeamCondition {
+        private String name;
+        private Long id;
+    }
+}
@@ -0,0 +1,91 @@
+package com.querydsl.repository;
+
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.entity.Member;
+import com.querydsl.entity.Team;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class FetchPlanTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void before() {
+        em.flush();
+        em.clear();
+        emf.getCache().evictAll();
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    void fetchJoinLoadsTeamsInOneStatement() {
+        List<Member> members = memberRepository.findMember(new MemberSearchCondition(), MemberFetchPlan.FETCH_JOIN);
+        members.forEach(m -> teamName(m));
+
+        assertThat(members).hasSize(10);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void entityGraphLoadsTeamsInOneStatement() {
+        List<Member> members = memberRepository.findMember(new MemberSearchCondition(), MemberFetchPlan.ENTITY_GRAPH);
+        members.forEach(m -> teamName(m));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void lazyTeamsAreBatchFetched() {
+        List<Member> members = memberRepository.findMember(new MemberSearchCondition(), MemberFetchPlan.LAZY);
+        members.forEach(m -> teamName(m));
+
+        // member 조회 1번 + team IN 조회 1번
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void teamsWithMembersArePagedInDatabase() {
+        Page<Team> page = teamRepository.findTeamsWithMembers(PageRequest.of(0, 1));
+        int memberCount = page.getContent().get(0).getMembers().size();
+
+        assertThat(page.getContent()).extracting("name").containsExactly("teamA");
+        assertThat(memberCount).isEqualTo(2);
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        // team id 페이징, members fetch join, count
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    private String teamName(Member member) {
+        return member.getTeam() == null ? null : member.getTeam().getName();
+    }
+}
@@ -0,0 +1,42 @@
+package com.querydsl.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class InListChunksTest {
+
+    @Test
+    void chunksArePaddedToPowerOfTwo() {
+        List<List<Integer>> chunks = InListChunks.split(Arrays.asList(1, 2, 3, 3, null, 4, 5), 8);
+
+        assertThat(chunks).containsExactly(List.of(1, 2, 3, 4, 5, 5, 5, 5));
+    }
+
+    @Test
+    void largeInputIsSplitByMaxSize() {
+        List<Integer> values = IntStream.rangeClosed(1, 21).boxed().collect(Collectors.toList());
+
+        List<List<Integer>> chunks = InListChunks.split(values, 8);
+
+        assertThat(chunks).extracting(List::size).containsExactly(8, 8, 8);
+        assertThat(chunks.get(2)).containsExactly(17, 18, 19, 20, 21, 21, 21, 21);
+    }
+
+    @Test
+    void paddedSizesAreLimited() {
+        List<Integer> sizes = IntStream.rangeClosed(1, 512)
+                .map(size -> InListChunks.paddedSize(size, 500))
+                .distinct()
+                .boxed()
+                .collect(Collectors.toList());
+
+        assertThat(sizes).containsExactly(1, 2, 4, 8, 16, 32, 64, 128, 256, 500);
+        assertThat(InListChunks.split(List.of(), 8)).isEmpty();
+    }
+}
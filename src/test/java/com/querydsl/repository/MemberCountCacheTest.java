@@ -0,0 +1,40 @@
+package com.querydsl.repository;
+
+import com.querydsl.dto.MemberSearchCondition;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MemberCountCacheTest {
+
+    @Test
+    void cachesByNormalizedCondition() {
+        MemberCountCache cache = new MemberCountCache(Duration.ofMinutes(1), 10);
+        AtomicInteger queries = new AtomicInteger();
+
+        MemberSearchCondition blank = new MemberSearchCondition();
+        blank.setUsername("");
+        MemberSearchCondition empty = new MemberSearchCondition();
+
+        assertThat(cache.get(blank, () -> queries.incrementAndGet() * 100L)).isEqualTo(100L);
+        assertThat(cache.get(empty, () -> queries.incrementAndGet() * 100L)).isEqualTo(100L);
+        assertThat(queries.get()).isEqualTo(1);
+
+        cache.invalidateAll();
+        assertThat(cache.get(empty, () -> queries.incrementAndGet() * 100L)).isEqualTo(200L);
+    }
+
+    @Test
+    void disabledWhenTtlIsZero() {
+        MemberCountCache cache = new MemberCountCache(Duration.ZERO, 10);
+        AtomicInteger queries = new AtomicInteger();
+
+        cache.get(new MemberSearchCondition(), queries::incrementAndGet);
+        cache.get(new MemberSearchCondition(), queries::incrementAndGet);
+
+        assertThat(queries.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,96 @@
+package com.querydsl.repository;
+
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.sql.H2Templates;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.h2.H2ConnectionOption;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReactiveMemberRepositoryTest {
+
+    static DatabaseClient client;
+    static ReactiveMemberRepository repository;
+
+    @BeforeAll
+    static void beforeAll() {
+        client = DatabaseClient.create(H2ConnectionFactory.inMemory("reactive_member", "sa", "",
+                Map.of(H2ConnectionOption.DB_CLOSE_DELAY, "-1")));
+        Flux.just(
+                "create table team (team_id bigint not null, name varchar(255), primary key (team_id))",
+                "create table member (member_id bigint not null, age integer not null, username varchar(255),"
+                        + " team_id bigint, primary key (member_id))",
+                "insert into team values (1, 'teamA'), (2, 'teamB')",
+                "insert into member values (1, 10, 'member1', 1), (2, 20, 'member2', 1),"
+                        + " (3, 30, 'member3', 2), (4, 40, 'member4', 2), (5, 50, 'member5', null)"
+        ).concatMap(sql -> client.sql(sql).fetch().rowsUpdated()).blockLast();
+
+        repository = new ReactiveMemberRepository(client, H2Templates.builder().build());
+    }
+
+    @Test
+    void search() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+        condition.setAgeGoe(35);
+
+        StepVerifier.create(repository.search(condition))
+                .assertNext(dto -> {
+                    assertThat(dto.getUsername()).isEqualTo("member4");
+                    assertThat(dto.getTeamName()).isEqualTo("teamB");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void searchWithoutConditionKeepsMembersWithoutTeam() {
+        StepVerifier.create(repository.search(new MemberSearchCondition()).map(MemberTeamDto::getUsername))
+                .expectNext("member1", "member2", "member3", "member4", "member5")
+                .verifyComplete();
+    }
+
+    @Test
+    void searchHonoursBackpressure() {
+        StepVerifier.create(repository.search(new MemberSearchCondition()), 2)
+                .expectNextCount(2)
+                .thenRequest(3)
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
+    @Test
+    void searchPageSimple() {
+        StepVerifier.create(repository.searchPageSimple(new MemberSearchCondition(), PageRequest.of(1, 2)))
+                .assertNext(page -> {
+                    assertThat(page.getTotalElements()).isEqualTo(5);
+                    assertThat(page.getContent()).extracting("username").containsExactly("member3", "member4");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void searchPageComplex() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        StepVerifier.create(repository.searchPageComplex(condition, PageRequest.of(0, 10)))
+                .assertNext(page -> {
+                    assertThat(page.getTotalElements()).isEqualTo(2);
+                    assertThat(page.getContent()).extracting("username").containsExactly("member1", "member2");
+                })
+                .verifyComplete();
+
+        StepVerifier.create(repository.searchPageComplex(new MemberSearchCondition(), PageRequest.of(0, 2)))
+                .assertNext(page -> assertThat(page.getTotalElements()).isEqualTo(5))
+                .verifyComplete();
+    }
+}
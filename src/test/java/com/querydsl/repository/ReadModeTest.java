@@ -0,0 +1,90 @@
+package com.querydsl.repository;
+
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.entity.Member;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class ReadModeTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    Session session;
+
+    @BeforeEach
+    void before() {
+        em.flush();
+        em.clear();
+        session = em.unwrap(Session.class);
+    }
+
+    @Test
+    void everyReadModeReturnsSameRows() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(12);
+
+        List<MemberTeamDto> expected = memberRepository.findMemberTeams(condition, MemberReadMode.ENTITY);
+        em.clear();
+
+        assertThat(expected).isNotEmpty();
+        for (MemberReadMode readMode : MemberReadMode.values()) {
+            assertThat(memberRepository.findMemberTeams(condition, readMode))
+                    .as(readMode.name())
+                    .containsExactlyInAnyOrderElementsOf(expected);
+            em.clear();
+        }
+    }
+
+    @Test
+    void readOnlyEntitiesAreNotDirtyChecked() {
+        memberRepository.findMemberTeams(new MemberSearchCondition(), MemberReadMode.READ_ONLY);
+
+        Member member = memberRepository.findMember(new MemberSearchCondition()).get(0);
+        assertThat(session.isReadOnly(member)).isTrue();
+
+        member.setUsername("changed");
+        em.flush();
+        em.clear();
+
+        assertThat(memberRepository.findById(member.getId()).get().getUsername()).isNotEqualTo("changed");
+    }
+
+    @Test
+    void projectionAndStatelessDoNotHydrateEntities() {
+        memberRepository.findMemberTeams(new MemberSearchCondition(), MemberReadMode.PROJECTION);
+        memberRepository.findMemberTeams(new MemberSearchCondition(), MemberReadMode.STATELESS);
+
+        assertThat(session.getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void scanMembersStreamsInIdOrderOnCurrentTransaction() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        List<Long> ids = new ArrayList<>();
+        long count = memberRepository.scanMembers(condition, 2, dto -> ids.add(dto.getMemberId()));
+
+        assertThat(count).isEqualTo(ids.size()).isPositive();
+        assertThat(ids).isSorted();
+        // StatelessSession 이 커넥션을 닫지 않았으므로 같은 트랜잭션에서 계속 조회할 수 있다.
+        assertThat(memberRepository.searchCount(condition)).isEqualTo(count);
+    }
+}
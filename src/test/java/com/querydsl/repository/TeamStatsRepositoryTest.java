@@ -0,0 +1,144 @@
+package com.querydsl.repository;
+
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.TeamStatsDto;
+import com.querydsl.entity.Member;
+import com.querydsl.entity.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class TeamStatsRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TeamStatsRepository teamStatsRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    Team teamA;
+
+    @BeforeEach
+    void before() {
+        teamStatsRepository.rebuildTeamStats();
+        teamA = teamRepository.findAll().stream()
+                .filter(t -> t.getName().equals("teamA"))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void rebuildMatchesGroupBy() {
+        List<TeamStatsDto> stats = teamStatsRepository.findTeamStats();
+
+        assertThat(stats).isNotEmpty();
+        assertThat(stats).isEqualTo(teamStatsRepository.aggregateTeamStats());
+    }
+
+    @Test
+    void insertUpdateAndDeleteKeepStatsCurrent() {
+        Team teamC = teamRepository.save(new Team("teamC"));
+        Member young = memberRepository.save(new Member("young", 5, teamA));
+        Member old = memberRepository.save(new Member("old", 40, teamC));
+        em.flush();
+        assertStatsCurrent();
+
+        TeamStatsDto teamCStats = stats("teamC");
+        assertThat(teamCStats.getMemberCount()).isEqualTo(1);
+        assertThat(teamCStats.getAgeHistogram()).containsEntry("기타", 1L);
+
+        young.setAge(15);
+        old.changeTeam(teamA);
+        em.flush();
+        assertStatsCurrent();
+        assertThat(stats("teamC").getMemberCount()).isZero();
+        assertThat(stats("teamC").getMinAge()).isNull();
+
+        memberRepository.delete(old);
+        em.flush();
+        assertStatsCurrent();
+        assertThat(stats("teamA").getMaxAge()).isLessThan(40);
+    }
+
+    @Test
+    void bulkUpdateRebuildsStats() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        memberRepository.bulkAddAge(condition, 10);
+
+        assertStatsCurrent();
+    }
+
+    @Test
+    void bulkChangeTeamRecomputesOnlyTouchedTeams() {
+        Team teamC = teamRepository.save(new Team("teamC"));
+        Team teamD = teamRepository.save(new Team("teamD"));
+        memberRepository.save(new Member("bulkStats", 30, teamD));
+        em.flush();
+        // 대상이 아닌 team 의 통계 행은 다시 집계하지 않는다.
+        em.createNativeQuery("update team_stats set member_count = 99 where team_id = ?")
+                .setParameter(1, teamD.getId())
+                .executeUpdate();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        assertThat(memberRepository.bulkChangeTeam(condition, teamC.getId())).isEqualTo(2);
+
+        assertThat(stats("teamA").getMemberCount()).isZero();
+        assertThat(stats("teamC").getMemberCount()).isEqualTo(2);
+        assertThat(stats("teamD").getMemberCount()).isEqualTo(99);
+    }
+
+    @Test
+    void missingStatsRowIsRecreated() {
+        em.createNativeQuery("delete from team_stats where team_id = ?")
+                .setParameter(1, teamA.getId())
+                .executeUpdate();
+
+        memberRepository.save(new Member("recreated", 30, teamA));
+        em.flush();
+
+        assertStatsCurrent();
+    }
+
+    @Test
+    void averageAgeMatchesGroupBy() {
+        memberRepository.save(new Member("stats", 30, teamA));
+        em.flush();
+        em.clear();
+
+        TeamStatsDto stats = stats("teamA");
+        assertThat(stats.getAvgAge()).isEqualTo(
+                teamStatsRepository.aggregateTeamStats().stream()
+                        .filter(s -> s.getTeamName().equals("teamA"))
+                        .findFirst().orElseThrow().getAvgAge());
+        assertThat(teamStatsRepository.findById(teamA.getId())).isPresent();
+    }
+
+    private void assertStatsCurrent() {
+        assertThat(teamStatsRepository.findTeamStats()).isEqualTo(teamStatsRepository.aggregateTeamStats());
+    }
+
+    private TeamStatsDto stats(String teamName) {
+        return teamStatsRepository.findTeamStats().stream()
+                .filter(s -> s.getTeamName().equals(teamName))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,199 @@
+package com.querydsl.repository;
+
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.entity.Member;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = "member.username-index.enabled=true")
+class UsernameSearchTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    UsernameIndex usernameIndex;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void prefixSearchEscapesLikeWildcards() {
+        assertThat(search(condition("member1", null))).containsExactlyInAnyOrder("member1", "member10");
+        assertThat(search(condition("member_", null))).isEmpty();
+        assertThat(search(condition("%", null))).isEmpty();
+    }
+
+    @Test
+    void containsSearch() {
+        assertThat(search(condition(null, "ber1"))).containsExactlyInAnyOrder("member1", "member10");
+        // ngram 보다 짧은 term 은 like 로 찾는다.
+        assertThat(search(condition(null, "0"))).containsExactly("member10");
+        // 큰따옴표는 지우지 않고 그대로 찾는다.
+        assertThat(search(condition(null, "\"\""))).isEmpty();
+        Member quoted = memberRepository.save(new Member("quo\"ted", 20));
+        try {
+            assertThat(search(condition(null, "o\"t"))).containsExactly("quo\"ted");
+            assertThat(search(condition(null, "ot"))).isEmpty();
+        } finally {
+            memberRepository.delete(quoted);
+        }
+    }
+
+    @Test
+    void bulkContainsSeesMembersInsertedInSameTransaction() {
+        Long count = transactionTemplate.execute(status -> {
+            memberRepository.save(new Member("uncommittedContains", 20));
+            MemberSearchCondition condition = condition(null, "committedCont");
+            long updated = memberRepository.bulkAddAge(condition, 1);
+            status.setRollbackOnly();
+            return updated;
+        });
+        assertThat(count).isEqualTo(1);
+    }
+
+    @Test
+    void usernameIndexFollowsCommittedChanges() {
+        assertThat(usernameIndex.isLoaded()).isTrue();
+        assertThat(usernameIndex.findUsernamesByPrefix("member1", 10)).containsExactly("member1", "member10");
+
+        Member saved = memberRepository.save(new Member("prefixUser", 20));
+        try {
+            assertThat(usernameIndex.findUsernamesByPrefix("prefix", 10)).containsExactly("prefixUser");
+            assertThat(memberRepository.searchByUsernamePrefix("prefix", 10))
+                    .extracting(MemberTeamDto::getMemberId)
+                    .containsExactly(saved.getId());
+
+            transactionTemplate.executeWithoutResult(status -> {
+                memberRepository.findById(saved.getId()).orElseThrow().setUsername("renamed");
+                memberRepository.flush();
+                status.setRollbackOnly();
+            });
+            assertThat(usernameIndex.findUsernamesByPrefix("prefix", 10)).containsExactly("prefixUser");
+        } finally {
+            memberRepository.delete(saved);
+        }
+
+        assertThat(usernameIndex.findUsernamesByPrefix("prefix", 10)).isEmpty();
+        assertThat(memberRepository.searchByUsernamePrefix("prefix", 10)).isEmpty();
+    }
+
+    @Test
+    void usernameIndexKeepsDuplicateUsernames() {
+        Member first = memberRepository.save(new Member("dupUser", 20));
+        Member second = memberRepository.save(new Member("dupUser", 30));
+        try {
+            assertThat(usernameIndex.findUsernamesByPrefix("dup", 10)).containsExactly("dupUser");
+            assertThat(memberRepository.searchByUsernamePrefix("dup", 10))
+                    .extracting(MemberTeamDto::getMemberId)
+                    .containsExactlyInAnyOrder(first.getId(), second.getId());
+
+            // 한 member 가 지워져도 같은 username 의 다른 member 는 인덱스에 남는다.
+            memberRepository.delete(first);
+            assertThat(memberRepository.searchByUsernamePrefix("dup", 10))
+                    .extracting(MemberTeamDto::getMemberId)
+                    .containsExactly(second.getId());
+        } finally {
+            memberRepository.delete(second);
+        }
+    }
+
+    @Test
+    void prefixSearchLimitIsCapped() {
+        List<Member> members = memberRepository.saveAll(IntStream.range(0, MemberRepositoryCustomImpl.MAX_PREFIX_LIMIT + 5)
+                .mapToObj(i -> new Member("capUser" + i, 20))
+                .collect(Collectors.toList()));
+        try {
+            assertThat(memberRepository.searchByUsernamePrefix("capUser", Integer.MAX_VALUE))
+                    .hasSize(MemberRepositoryCustomImpl.MAX_PREFIX_LIMIT);
+        } finally {
+            memberRepository.deleteAll(members);
+        }
+    }
+
+    @Test
+    void staleIndexEntriesDoNotUseUpLimit() {
+        List<Member> members = memberRepository.saveAll(IntStream.range(0, 6)
+                .mapToObj(i -> new Member("staleUser" + i, 20))
+                .collect(Collectors.toList()));
+        try {
+            // 이벤트가 없는 JPQL 삭제는 인덱스에 남는다.
+            memberRepository.deleteAllByIdInBatch(List.of(members.get(0).getId(), members.get(1).getId(),
+                    members.get(2).getId()));
+            assertThat(usernameIndex.findUsernamesByPrefix("staleUser", 10)).hasSize(6);
+
+            assertThat(memberRepository.searchByUsernamePrefix("staleUser", 2))
+                    .extracting(MemberTeamDto::getUsername)
+                    .containsExactly("staleUser3", "staleUser4");
+
+            // 다시 읽으면 지워진 member 는 인덱스에서 빠진다.
+            usernameIndex.reload();
+            assertThat(usernameIndex.findUsernamesByPrefix("staleUser", 10))
+                    .containsExactly("staleUser3", "staleUser4", "staleUser5");
+        } finally {
+            memberRepository.deleteAllByIdInBatch(members.stream().map(Member::getId).collect(Collectors.toList()));
+            usernameIndex.reload();
+        }
+    }
+
+    @Test
+    void bulkDeleteReloadsUsernameIndex() {
+        memberRepository.saveAll(List.of(new Member("bulkUser0", 77), new Member("bulkUser1", 77)));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsernamePrefix("bulkUser");
+        assertThat(memberRepository.bulkDelete(condition)).isEqualTo(2);
+
+        assertThat(usernameIndex.findUsernamesByPrefix("bulkUser", 10)).isEmpty();
+    }
+
+    @Test
+    void indexAndDatabaseReturnSamePrefixResults() {
+        List<Member> members = memberRepository.saveAll(List.of(new Member("sameB", 1), new Member("samea", 2),
+                new Member("sameA", 3), new Member("same", 4), new Member("Same", 5)));
+        try {
+            // 인덱스를 쓰는 DB 는 binary collation 이므로 DB 의 startsWith / order by 와 같아야 한다.
+            assertThat(BinaryCollation.mismatches(jdbcTemplate, "member.username")).isEmpty();
+            List<String> fromDatabase = jdbcTemplate.queryForList(
+                    "select username from member where username like 'same%' order by username, member_id", String.class);
+
+            assertThat(memberRepository.searchByUsernamePrefix("same", 10))
+                    .extracting(MemberTeamDto::getUsername)
+                    .containsExactlyElementsOf(fromDatabase)
+                    .containsExactly("same", "sameA", "sameB", "samea");
+        } finally {
+            memberRepository.deleteAll(members);
+        }
+    }
+
+    private MemberSearchCondition condition(String prefix, String contains) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsernamePrefix(prefix);
+        condition.setUsernameContains(contains);
+        return condition;
+    }
+
+    private List<String> search(MemberSearchCondition condition) {
+        List<String> byFindMember = memberRepository.findMember(condition).stream()
+                .map(Member::getUsername)
+                .collect(Collectors.toList());
+        List<String> bySearch = memberRepository.search(condition).stream()
+                .map(MemberTeamDto::getUsername)
+                .collect(Collectors.toList());
+        assertThat(bySearch).containsExactlyInAnyOrderElementsOf(byFindMember);
+        return bySearch;
+    }
+}
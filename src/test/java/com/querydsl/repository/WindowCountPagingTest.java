@@ -0,0 +1,107 @@
+package com.querydsl.repository;
+
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * count_over() 한 번의 쿼리로 만든 페이지가 content + count 두 번 조회(searchPageComplex)와 같은지 실제 DB 에서 확인한다.
+ * window function 이 없는 DB(MySQL 5.7)에서는 설정된 dialect 가 그 경로를 쓰지 않는지만 확인한다.
+ */
+@SpringBootTest
+@Transactional
+class WindowCountPagingTest {
+
+    @Autowired
+    MemberRepositoryCustomImpl memberRepositoryCustomImpl;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManager em;
+
+    @Test
+    void windowCountMatchesContentAndCountQueries() {
+        assumeTrue(serverSupportsWindowFunctions(), "window function 을 지원하지 않는 DB");
+
+        for (MemberSearchCondition condition : conditions()) {
+            for (int page = 0; page < 5; page++) {
+                PageRequest pageable = PageRequest.of(page, 3);
+                Page<MemberTeamDto> expected = memberRepository.searchPageComplex(condition, pageable);
+                Page<MemberTeamDto> result = memberRepositoryCustomImpl.searchPageWindowCount(condition, pageable);
+
+                assertThat(result.getTotalElements()).as("%s, %s", condition, pageable).isEqualTo(expected.getTotalElements());
+                assertThat(result.getContent()).as("%s, %s", condition, pageable)
+                        .usingRecursiveFieldByFieldElementComparator()
+                        .containsExactlyElementsOf(expected.getContent());
+            }
+        }
+    }
+
+    @Test
+    void configuredDialectMatchesServer() {
+        // dialect 가 window function 을 쓴다고 판단하면 서버도 지원해야 한다. (MySQL57Dialect 는 MySQL 8 에서도 fallback 한다)
+        if (WindowFunctionSupport.isSupported(em)) {
+            assertThat(serverSupportsWindowFunctions()).isTrue();
+        }
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(12);
+        PageRequest pageable = PageRequest.of(1, 3);
+        Page<MemberTeamDto> expected = memberRepository.searchPageComplex(condition, pageable);
+        Page<MemberTeamDto> result = memberRepository.searchPageSimple(condition, pageable);
+        assertThat(result.getTotalElements()).isEqualTo(expected.getTotalElements());
+        assertThat(result.getContent()).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected.getContent());
+    }
+
+    private List<MemberSearchCondition> conditions() {
+        List<MemberSearchCondition> conditions = new ArrayList<>();
+        conditions.add(new MemberSearchCondition());
+        MemberSearchCondition teamA = new MemberSearchCondition();
+        teamA.setTeamName("teamA");
+        conditions.add(teamA);
+        MemberSearchCondition age = new MemberSearchCondition();
+        age.setAgeGoe(12);
+        age.setAgeLoe(17);
+        conditions.add(age);
+        MemberSearchCondition nobody = new MemberSearchCondition();
+        nobody.setUsername("nobody");
+        conditions.add(nobody);
+        return conditions;
+    }
+
+    private boolean serverSupportsWindowFunctions() {
+        return jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String product = metaData.getDatabaseProductName();
+            if ("H2".equals(product)) {
+                return true;
+            }
+            // MariaDB 는 10.2 부터, MySQL 은 8.0 부터 지원한다.
+            String version = metaData.getDatabaseProductVersion();
+            return version.contains("MariaDB")
+                    ? metaData.getDatabaseMajorVersion() > 10
+                    || (metaData.getDatabaseMajorVersion() == 10 && metaData.getDatabaseMinorVersion() >= 2)
+                    : metaData.getDatabaseMajorVersion() >= 8;
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package com.querydsl.repository;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQL57Dialect;
+import org.hibernate.dialect.MySQL5Dialect;
+import org.hibernate.dialect.MySQL8Dialect;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class WindowFunctionSupportTest {
+
+    @Test
+    void mysql57FallsBackToCountQuery() {
+        assertThat(WindowFunctionSupport.isSupported(new MySQL57Dialect())).isFalse();
+        assertThat(WindowFunctionSupport.isSupported(new MySQL5Dialect())).isFalse();
+    }
+
+    @Test
+    void mysql8AndH2UseWindowCount() {
+        assertThat(WindowFunctionSupport.isSupported(new MySQL8Dialect())).isTrue();
+        assertThat(WindowFunctionSupport.isSupported(new H2Dialect())).isTrue();
+    }
+}
@@ -0,0 +1,50 @@
+package com.querydsl.repository.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MemberIndexesTest {
+
+    @Test
+    void teamAndAgeRangeMatchColumnScan() {
+        long seed = System.nanoTime();
+        Random random = new Random(seed);
+        int size = 5000;
+        int[] ages = IntStream.range(0, size).map(i -> random.nextInt(100)).toArray();
+        int[] teamSlots = IntStream.range(0, size).map(i -> random.nextInt(5)).toArray();
+        MemberIndexes indexes = MemberIndexes.build(size, ages, teamSlots, 5);
+
+        for (int i = 0; i < 200; i++) {
+            int min = random.nextBoolean() ? Integer.MIN_VALUE : random.nextInt(110) - 5;
+            int max = random.nextBoolean() ? Integer.MAX_VALUE : random.nextInt(110) - 5;
+            // slot 0 은 team 이 없는 member 이므로 team 조건에 걸리지 않는다.
+            boolean[] teamMatches = new boolean[5];
+            teamMatches[random.nextInt(5)] = true;
+            teamMatches[random.nextInt(5)] = true;
+
+            int[] expectedAge = IntStream.range(0, size).filter(p -> ages[p] >= min && ages[p] <= max).toArray();
+            long expectedCount = IntStream.of(expectedAge)
+                    .filter(p -> teamSlots[p] != 0 && teamMatches[teamSlots[p]])
+                    .count();
+
+            RoaringBitmap age = indexes.age(min, max);
+            assertThat(age.toArray()).as("seed=%d, min=%d, max=%d", seed, min, max).containsExactly(expectedAge);
+            assertThat(indexes.count(teamMatches, true, min, max)).as("seed=%d", seed).isEqualTo(expectedCount);
+            assertThat(RoaringBitmap.and(indexes.team(teamMatches), age).getLongCardinality()).isEqualTo(expectedCount);
+        }
+    }
+
+    @Test
+    void tooManyDistinctAgesSkipAgeIndex() {
+        int size = MemberIndexes.MAX_AGE_VALUES + 1;
+        MemberIndexes indexes = MemberIndexes.build(size, IntStream.range(0, size).toArray(), new int[size], 1);
+
+        assertThat(indexes.hasAgeIndex()).isFalse();
+        assertThat(indexes.count(null, false, Integer.MIN_VALUE, Integer.MAX_VALUE)).isEqualTo(size);
+    }
+}
@@ -0,0 +1,292 @@
+package com.querydsl.repository.snapshot;
+
+import com.querydsl.config.CacheConfiguration;
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.entity.Member;
+import com.querydsl.entity.Team;
+import com.querydsl.repository.MemberRepository;
+import com.querydsl.repository.TeamRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 임의의 데이터 / 변경 / 검색 조건에 대해 snapshot 검색 결과가 MemberRepository.search 와 같은지 확인한다.
+ * 실패하면 메시지의 seed 로 같은 경우를 다시 만들 수 있다.
+ * 기본 collation 의 MySQL 에서는 snapshot 이 켜지지 않으므로 이 테스트가 만든 H2 스키마에서 실행한다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:member_snapshot;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "member.snapshot.enabled=true",
+        "member.snapshot.merge-threshold=16"
+})
+class MemberSnapshotEngineTest {
+
+    private static final String[] USERNAMES = {"member1", "member3", "snap0", "snap1", "snap2", "snap3", "snap4", null};
+    private static final String[] TEAM_NAMES = {"teamA", "teamB", "snapTeam", "snapTeam2"};
+
+    @Autowired
+    MemberSnapshotEngine engine;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final long seed = System.nanoTime();
+    private final Random random = new Random(seed);
+    private final List<Long> createdTeamIds = new ArrayList<>();
+    private List<Long> initialMemberIds;
+
+    @BeforeEach
+    void before() {
+        initialMemberIds = memberRepository.findAll().stream().map(Member::getId).collect(Collectors.toList());
+    }
+
+    @AfterEach
+    void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (initialMemberIds.isEmpty()) {
+                em.createQuery("delete from Member m").executeUpdate();
+            } else {
+                em.createQuery("delete from Member m where m.id not in :ids")
+                        .setParameter("ids", initialMemberIds)
+                        .executeUpdate();
+            }
+            createdTeamIds.forEach(id -> em.remove(em.find(Team.class, id)));
+        });
+        cacheManager.getCache(CacheConfiguration.MEMBER_SEARCH).clear();
+        engine.reload();
+    }
+
+    @Test
+    void searchMatchesRepositoryForRandomConditions() {
+        assertThat(engine.isAvailable()).isTrue();
+        insertRandomMembers(200);
+        assertSameResults(200);
+
+        // 트랜잭션마다 delta 에 쌓이고 merge-threshold 를 넘으면 컬럼에 합쳐진다.
+        for (int round = 0; round < 8; round++) {
+            mutateRandomly(10);
+            assertSameResults(50);
+        }
+    }
+
+    @Test
+    void rolledBackChangesAreNotApplied() {
+        insertRandomMembers(5);
+        MemberSearchCondition all = new MemberSearchCondition();
+        List<MemberTeamDto> before = engine.search(all);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.save(new Member("snapRolledBack", 1));
+            memberRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        assertThat(engine.search(all)).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(before);
+    }
+
+    @Test
+    void bulkOperationReloadsSnapshot() {
+        insertRandomMembers(50);
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("snapTeam");
+
+        memberRepository.bulkAddAge(condition, 200);
+
+        assertThat(engine.isAvailable()).isTrue();
+        assertSameResults(30);
+    }
+
+    @Test
+    void searchCountUsesSnapshotIndexes() {
+        insertRandomMembers(50);
+        Long teamId = createdTeamIds.get(1);
+        Long memberId = transactionTemplate.execute(status -> {
+            Member member = memberRepository.save(new Member("snapMoved", 20));
+            member.changeTeam(em.find(Team.class, teamId));
+            return member.getId();
+        });
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("snapTeam");
+        condition.setAgeGoe(15);
+        condition.setAgeLoe(30);
+        List<MemberTeamDto> expected = memberRepository.search(condition);
+        assertThat(expected).extracting(MemberTeamDto::getMemberId).contains(memberId);
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertThat(memberRepository.searchCount(condition)).isEqualTo(expected.size());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void applyReadsLatestCommittedRows() {
+        insertRandomMembers(5);
+        Long memberId = transactionTemplate.execute(status -> memberRepository.save(new Member("snapLatest", 10)).getId());
+
+        // 먼저 커밋된 트랜잭션의 반영이 나중에 도착해도 DB 의 최신 값이 남는다.
+        jdbcTemplate.update("update member set age = ? where member_id = ?", 33, memberId);
+        engine.apply(List.of(memberId), List.of());
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("snapLatest");
+        assertThat(engine.search(condition)).extracting(MemberTeamDto::getAge).containsExactly(33);
+
+        jdbcTemplate.update("delete from member where member_id = ?", memberId);
+        engine.apply(List.of(memberId), List.of());
+        assertThat(engine.search(condition)).isEmpty();
+    }
+
+    @Test
+    void collationIsNotCheckedOutsideMySql() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+
+        assertThat(product).isEqualTo("H2");
+        assertThat(MemberSnapshotEngine.collationMismatches(jdbcTemplate)).isEmpty();
+        assertThat(engine.isTracking()).isTrue();
+    }
+
+    private void insertRandomMembers(int count) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Team> teams = new ArrayList<>(teamRepository.findAll());
+            for (String name : new String[]{"teamA", "snapTeam", "snapTeam2"}) {
+                Team team = teamRepository.save(new Team(name));
+                createdTeamIds.add(team.getId());
+                teams.add(team);
+            }
+            List<Member> members = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                members.add(new Member(randomUsername(), random.nextInt(40), randomTeam(teams)));
+            }
+            memberRepository.saveAll(members);
+        });
+    }
+
+    private void mutateRandomly(int changes) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Team> teams = teamRepository.findAll();
+            List<Member> members = memberRepository.findAll().stream()
+                    .filter(member -> member.getUsername() == null || member.getUsername().startsWith("snap"))
+                    .collect(Collectors.toList());
+            for (int i = 0; i < changes && !members.isEmpty(); i++) {
+                Member member = members.get(random.nextInt(members.size()));
+                switch (random.nextInt(6)) {
+                    case 0:
+                        member.setAge(random.nextInt(40));
+                        break;
+                    case 1:
+                        member.setTeam(randomTeam(teams));
+                        break;
+                    case 2:
+                        member.setUsername(randomUsername());
+                        break;
+                    case 3:
+                        memberRepository.delete(member);
+                        members.remove(member);
+                        break;
+                    case 4:
+                        members.add(memberRepository.save(
+                                new Member(randomUsername(), random.nextInt(40), randomTeam(teams))));
+                        break;
+                    default:
+                        Team team = em.find(Team.class, createdTeamIds.get(random.nextInt(createdTeamIds.size())));
+                        team.setName(TEAM_NAMES[random.nextInt(TEAM_NAMES.length)]);
+                }
+            }
+        });
+        cacheManager.getCache(CacheConfiguration.MEMBER_SEARCH).clear();
+    }
+
+    private void assertSameResults(int conditions) {
+        for (int i = 0; i < conditions; i++) {
+            MemberSearchCondition condition = randomCondition();
+            List<MemberTeamDto> expected = memberRepository.search(condition).stream()
+                    .sorted(Comparator.comparing(MemberTeamDto::getMemberId))
+                    .collect(Collectors.toList());
+
+            assertThat(engine.search(condition))
+                    .as("seed=%d, condition=%s", seed, condition)
+                    .usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(expected);
+            assertThat(engine.count(condition)).as("seed=%d, condition=%s", seed, condition).isEqualTo(expected.size());
+
+            int size = 1 + random.nextInt(20);
+            int page = random.nextInt(expected.size() / size + 2);
+            Page<MemberTeamDto> result = engine.searchPage(condition, PageRequest.of(page, size));
+            assertThat(result.getTotalElements()).as("seed=%d, condition=%s", seed, condition).isEqualTo(expected.size());
+            assertThat(result.getContent())
+                    .as("seed=%d, condition=%s, page=%d, size=%d", seed, condition, page, size)
+                    .usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(expected.subList(Math.min(page * size, expected.size()),
+                            Math.min(page * size + size, expected.size())));
+        }
+    }
+
+    private MemberSearchCondition randomCondition() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        int username = random.nextInt(USERNAMES.length + 3);
+        condition.setUsername(username < USERNAMES.length ? USERNAMES[username] : username == USERNAMES.length ? "" : null);
+        int teamName = random.nextInt(TEAM_NAMES.length + 3);
+        condition.setTeamName(teamName < TEAM_NAMES.length ? TEAM_NAMES[teamName] : teamName == TEAM_NAMES.length ? "" : null);
+        condition.setAgeGoe(random.nextBoolean() ? null : random.nextInt(50) - 5);
+        condition.setAgeLoe(random.nextBoolean() ? null : random.nextInt(50) - 5);
+        return condition;
+    }
+
+    private String randomUsername() {
+        String username = USERNAMES[random.nextInt(USERNAMES.length)];
+        // 기존 member(member1, member3)와 이름이 같은 member 도 만든다.
+        return username == null || username.startsWith("snap") || random.nextBoolean() ? username : "snap" + username;
+    }
+
+    private Team randomTeam(List<Team> teams) {
+        int index = random.nextInt(teams.size() + 1);
+        return index == teams.size() ? null : teams.get(index);
+    }
+}
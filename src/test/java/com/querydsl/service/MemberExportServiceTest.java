@@ -0,0 +1,44 @@
+package com.querydsl.service;
+
+import com.querydsl.dto.MemberSearchCondition;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MemberExportServiceTest {
+
+    @Autowired
+    MemberExportService memberExportService;
+
+    @Test
+    void exportNdjson() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        memberExportService.exportNdjson(condition, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"username\":\"member1\"").contains("\"teamName\":\"teamA\"");
+    }
+
+    @Test
+    void exportCsv() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        memberExportService.exportCsv(new MemberSearchCondition(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines[0]).isEqualTo("memberId,username,age,teamId,teamName");
+        assertThat(lines).hasSize(11);
+        assertThat(lines[1]).contains(",member1,10,").endsWith(",teamA");
+    }
+}
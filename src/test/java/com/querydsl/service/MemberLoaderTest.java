@@ -0,0 +1,130 @@
+package com.querydsl.service;
+
+import com.querydsl.entity.Member;
+import com.querydsl.repository.MemberRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MemberLoaderTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberLoader memberLoader;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void before() {
+        em.flush();
+        em.clear();
+        emf.getCache().evictAll();
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findByUsernamesReturnsMapInOneStatement() {
+        Map<String, List<Member>> members = memberRepository.findByUsernames(List.of("member1", "member2", "member3", "none"));
+
+        assertThat(members).containsOnlyKeys("member1", "member2", "member3");
+        assertThat(members.get("member2")).extracting("username").containsExactly("member2");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findByUsernamesKeepsDuplicateUsernames() {
+        Member first = memberRepository.findByUsername("member3");
+        Member duplicate = memberRepository.save(new Member("member3", 40));
+        em.flush();
+
+        Map<String, List<Member>> members = memberRepository.findByUsernames(List.of("member3"));
+
+        assertThat(members.get("member3")).containsExactlyInAnyOrder(first, duplicate);
+    }
+
+    @Test
+    void findByIdsReturnsMap() {
+        Member member = memberRepository.findByUsername("member1");
+
+        Map<Long, Member> members = memberRepository.findByIds(List.of(member.getId(), -1L));
+
+        assertThat(members).containsOnlyKeys(member.getId());
+        assertThat(memberRepository.findByIds(List.of())).isEmpty();
+    }
+
+    @Test
+    void singleLookupsAreCoalesced() {
+        CompletableFuture<List<Member>> first = memberLoader.loadByUsername("member1");
+        CompletableFuture<List<Member>> second = memberLoader.loadByUsername("member2");
+        CompletableFuture<List<Member>> again = memberLoader.loadByUsername("member1");
+        CompletableFuture<List<Member>> missing = memberLoader.loadByUsername("none");
+
+        memberLoader.dispatch();
+
+        assertThat(again).isSameAs(first);
+        assertThat(first.join()).extracting("username").containsExactly("member1");
+        assertThat(second.join()).extracting("username").containsExactly("member2");
+        assertThat(missing.join()).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        // 이미 조회한 key 는 다시 조회하지 않는다.
+        memberLoader.loadByUsername("member1");
+        memberLoader.dispatch();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void joinWithoutDispatchLoadsQueuedKeys() {
+        Member member = memberRepository.findByUsername("member1");
+        statistics.clear();
+
+        CompletableFuture<Member> byId = memberLoader.loadById(member.getId());
+        CompletableFuture<Member> missing = memberLoader.loadById(-1L);
+
+        assertThat(byId.thenApply(Member::getUsername).join()).isEqualTo("member1");
+        assertThat(missing).isCompletedWithValue(null);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failedBatchCanBeRetried() {
+        AtomicInteger calls = new AtomicInteger();
+        BatchLoader<String, String> loader = new BatchLoader<>(keys -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("db down");
+            }
+            return Map.of("a", "A");
+        });
+
+        CompletableFuture<String> failed = loader.load("a");
+        assertThatThrownBy(loader::dispatch).isInstanceOf(IllegalStateException.class);
+        assertThat(failed).isCompletedExceptionally();
+
+        assertThat(loader.get("a")).isEqualTo("A");
+        assertThat(calls).hasValue(2);
+    }
+}
@@ -0,0 +1,85 @@
+package com.querydsl.service;
+
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.repository.MemberRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Range;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+// worker 는 각자 트랜잭션을 열기 때문에 테스트 트랜잭션(@Transactional)의 데이터는 보이지 않는다. 초기 데이터만 읽는다.
+@SpringBootTest
+class MemberScanServiceTest {
+
+    @Autowired
+    MemberScanService memberScanService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    void partitionsCoverIdRange() {
+        assertThat(MemberScanService.partitions(1, 10, 3))
+                .containsExactly(Range.closed(1L, 4L), Range.closed(5L, 8L), Range.closed(9L, 10L));
+        assertThat(MemberScanService.partitions(5, 6, 8))
+                .containsExactly(Range.closed(5L, 5L), Range.closed(6L, 6L));
+        assertThat(MemberScanService.partitions(7, 7, 4)).containsExactly(Range.closed(7L, 7L));
+    }
+
+    @Test
+    void orderedScanReturnsMembersInIdOrder() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(12);
+        List<MemberTeamDto> expected = sortedSearch(condition);
+
+        List<MemberTeamDto> result = new ArrayList<>();
+        long count = memberScanService.scan(condition, 3, true, result::add);
+
+        assertThat(count).isEqualTo(expected.size());
+        assertThat(result).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void unorderedScanReturnsSameMembers() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        List<MemberTeamDto> expected = sortedSearch(condition);
+
+        List<MemberTeamDto> result = new ArrayList<>();
+        memberScanService.scan(condition, 4, false, result::add);
+
+        assertThat(result).usingRecursiveFieldByFieldElementComparator().containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    void emptyResult() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("nobody");
+
+        assertThat(memberScanService.scan(condition, 2, true, dto -> fail("unexpected " + dto))).isZero();
+    }
+
+    @Test
+    void actionFailureStopsScan() {
+        assertThatThrownBy(() -> memberScanService.scan(new MemberSearchCondition(), 2, false, dto -> {
+            throw new IllegalStateException("stop");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("stop");
+
+        // worker 가 정리된 뒤에도 다시 스캔할 수 있다.
+        assertThat(memberScanService.scan(new MemberSearchCondition(), 2, true, dto -> { })).isEqualTo(10);
+    }
+
+    private List<MemberTeamDto> sortedSearch(MemberSearchCondition condition) {
+        return memberRepository.search(condition).stream()
+                .sorted(Comparator.comparing(MemberTeamDto::getMemberId))
+                .collect(Collectors.toList());
+    }
+}
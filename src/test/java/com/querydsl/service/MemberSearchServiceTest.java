@@ -0,0 +1,49 @@
+package com.querydsl.service;
+
+import com.querydsl.dto.MemberSearchCondition;
+import com.querydsl.dto.MemberTeamDto;
+import com.querydsl.repository.MemberRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class MemberSearchServiceTest {
+
+    @Autowired
+    MemberSearchService memberSearchService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    void searchPageAsyncMatchesSearchPageComplex() throws Exception {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        PageRequest pageRequest = PageRequest.of(0, 2);
+
+        Page<MemberTeamDto> async = memberSearchService.searchPageAsync(condition, pageRequest).get(5, TimeUnit.SECONDS);
+        Page<MemberTeamDto> sync = memberRepository.searchPageComplex(condition, pageRequest);
+
+        assertThat(async.getTotalElements()).isEqualTo(sync.getTotalElements());
+        assertThat(async.getContent()).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(sync.getContent());
+    }
+
+    @Test
+    void searchPageAsyncLastPage() throws Exception {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        Page<MemberTeamDto> page = memberSearchService.searchPageAsync(condition, PageRequest.of(0, 10))
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(page.getTotalElements()).isEqualTo(page.getContent().size());
+        assertThat(page.getContent()).extracting("teamName").containsOnly("teamA");
+    }
+}